@@ -0,0 +1,87 @@
+package com.fattahpour.fillavro.benchmark;
+
+import com.fattahpour.fillavro.avro.AvroRecordGenerator;
+import com.fattahpour.fillavro.kafka.AvroResolvingDeserializer;
+import com.fattahpour.fillavro.kafka.AvroSpecificSerializer;
+import org.apache.avro.Schema;
+import org.apache.avro.generic.GenericDatumReader;
+import org.apache.avro.generic.GenericRecord;
+import org.apache.avro.io.DecoderFactory;
+import org.apache.kafka.common.header.internals.RecordHeaders;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Consumer-side decoding cost of schema resolution on the bundled schema: reading with the
+ * writer schema itself ({@code identity}) versus a newer writer schema with two extra fields
+ * ({@code evolved}), through {@link AvroResolvingDeserializer} and through a datum reader built
+ * per message, i.e. without caching the (writer, reader) resolution.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class DeserializerBenchmark {
+
+    @Param({"identity", "evolved"})
+    public String resolution;
+
+    private Schema writer;
+    private Schema reader;
+    private byte[] payload;
+    private RecordHeaders headers;
+    private AvroResolvingDeserializer deserializer;
+
+    @Setup
+    public void setUp() {
+        reader = SyntheticSchemas.forShape("bundled");
+        writer = "evolved".equals(resolution) ? evolve(reader) : reader;
+        GenericRecord record = new AvroRecordGenerator().generateRecord(writer);
+        payload = new AvroSpecificSerializer().serialize("bench", record);
+        headers = new RecordHeaders();
+        headers.add(AvroResolvingDeserializer.FINGERPRINT_HEADER, AvroResolvingDeserializer.fingerprintHeader(writer));
+        deserializer = new AvroResolvingDeserializer(reader, List.of(writer));
+    }
+
+    @Benchmark
+    public GenericRecord cachedResolution() {
+        return deserializer.deserialize("bench", headers, payload);
+    }
+
+    @Benchmark
+    public GenericRecord uncachedResolution() throws IOException {
+        return new GenericDatumReader<GenericRecord>(writer, reader)
+                .read(null, DecoderFactory.get().binaryDecoder(payload, null));
+    }
+
+    /**
+     * The next version of {@code schema}: same fields plus a phone number and an optional tier.
+     */
+    private static Schema evolve(Schema schema) {
+        List<Schema.Field> fields = new ArrayList<>();
+        for (Schema.Field field : schema.getFields()) {
+            fields.add(new Schema.Field(field, field.schema()));
+        }
+        fields.add(new Schema.Field("phone", Schema.create(Schema.Type.STRING)));
+        fields.add(new Schema.Field("loyaltyTier",
+                Schema.createUnion(Schema.create(Schema.Type.NULL), Schema.create(Schema.Type.STRING)),
+                null, org.apache.avro.JsonProperties.NULL_VALUE));
+        return Schema.createRecord(schema.getName(), schema.getDoc(), schema.getNamespace(), false, fields);
+    }
+}
@@ -0,0 +1,213 @@
+package com.fattahpour.fillavro.benchmark;
+
+import com.fattahpour.fillavro.avro.AvroRecordGenerator;
+import com.fattahpour.fillavro.avro.AvroSchemaLoader;
+import com.fattahpour.fillavro.config.AvroConfigProperties;
+import com.fattahpour.fillavro.kafka.AvroSpecificSerializer;
+import com.fattahpour.fillavro.kafka.LatencyRecorder;
+import com.fattahpour.fillavro.kafka.SendRateLimiter;
+import org.apache.avro.Schema;
+import org.apache.avro.generic.GenericDatumReader;
+import org.apache.avro.generic.GenericRecord;
+import org.apache.avro.io.BinaryDecoder;
+import org.apache.avro.io.DecoderFactory;
+import org.apache.kafka.clients.admin.NewTopic;
+import org.apache.kafka.clients.consumer.ConsumerConfig;
+import org.apache.kafka.clients.consumer.ConsumerRecord;
+import org.apache.kafka.clients.consumer.KafkaConsumer;
+import org.apache.kafka.clients.producer.KafkaProducer;
+import org.apache.kafka.clients.producer.ProducerConfig;
+import org.apache.kafka.clients.producer.ProducerRecord;
+import org.apache.kafka.common.TopicPartition;
+import org.apache.kafka.common.serialization.ByteArrayDeserializer;
+import org.apache.kafka.common.serialization.StringDeserializer;
+import org.apache.kafka.common.serialization.StringSerializer;
+import org.springframework.kafka.test.EmbeddedKafkaKraftBroker;
+
+import java.time.Duration;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Properties;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * End-to-end throughput harness: starts a single-node embedded Kafka (KRaft) broker, then for
+ * every (record size, rate) pair runs generate &rarr; serialize &rarr; send with a concurrent
+ * consumer that decodes and validates every message. Prints sustained throughput together
+ * with producer ack and end-to-end latency percentiles. Runs fully offline.
+ *
+ * <p>Options ({@code --name=value}): {@code records} per run (default 50000), {@code sizes} in
+ * bytes (default 256,1024,10240), {@code rates} in records/s with 0 meaning unthrottled
+ * (default 0,5000), {@code schema} (default schema.avsc) and any number of
+ * {@code producer.<kafka property>} overrides.
+ */
+public final class EndToEndBenchmark {
+
+    private static final Duration CONSUME_TIMEOUT = Duration.ofSeconds(60);
+
+    private EndToEndBenchmark() {
+    }
+
+    public static void main(String[] args) throws Exception {
+        ((ch.qos.logback.classic.Logger) org.slf4j.LoggerFactory.getLogger(org.slf4j.Logger.ROOT_LOGGER_NAME))
+                .setLevel(ch.qos.logback.classic.Level.WARN);
+        Map<String, String> options = HarnessOptions.parse(args);
+        long records = Long.parseLong(options.getOrDefault("records", "50000"));
+        List<Integer> sizes = HarnessOptions.list(options.getOrDefault("sizes", "256,1024,10240")).stream().map(Integer::valueOf).toList();
+        List<Double> rates = HarnessOptions.list(options.getOrDefault("rates", "0,5000")).stream().map(Double::valueOf).toList();
+        Schema schema = new AvroSchemaLoader().load(options.getOrDefault("schema", "schema.avsc"));
+        Map<String, String> producerOverrides = new HashMap<>();
+        options.forEach((k, v) -> {
+            if (k.startsWith("producer.")) {
+                producerOverrides.put(k.substring("producer.".length()), v);
+            }
+        });
+
+        EmbeddedKafkaKraftBroker broker = new EmbeddedKafkaKraftBroker(1, 1);
+        broker.afterPropertiesSet();
+        try {
+            System.out.printf("%n%-8s %10s %12s %9s   %-52s %-52s %s%n",
+                    "size(B)", "target/s", "records/s", "MB/s", "producer ack latency", "end-to-end latency", "valid");
+            int run = 0;
+            for (int size : sizes) {
+                for (double rate : rates) {
+                    String topic = "e2e-" + (run++) + "-" + size;
+                    broker.addTopics(new NewTopic(topic, 1, (short) 1));
+                    Result result = runOnce(broker.getBrokersAsString(), topic, schema, size, rate, records, producerOverrides);
+                    System.out.printf("%-8d %10s %12.0f %9.2f   %-52s %-52s %d/%d%n",
+                            size, rate > 0 ? String.format("%.0f", rate) : "max",
+                            result.recordsPerSecond, result.megabytesPerSecond,
+                            result.ackLatency.summary(), result.endToEndLatency.summary(),
+                            result.valid, records);
+                }
+            }
+        } finally {
+            broker.destroy();
+        }
+    }
+
+    private static Result runOnce(String bootstrap, String topic, Schema schema, int size, double rate,
+                                  long records, Map<String, String> producerOverrides) throws Exception {
+        AvroConfigProperties config = new AvroConfigProperties();
+        config.getPayloadSize().setDistribution("fixed");
+        config.getPayloadSize().setBytes(size);
+        AvroRecordGenerator generator = new AvroRecordGenerator(config);
+
+        Verifier verifier = new Verifier(bootstrap, topic, schema, records);
+        Thread consumerThread = new Thread(verifier, "e2e-consumer-" + topic);
+        consumerThread.start();
+        verifier.awaitAssignment();
+
+        LatencyRecorder ackLatency = new LatencyRecorder();
+        AtomicLong bytes = new AtomicLong();
+        SendRateLimiter limiter = new SendRateLimiter(rate);
+        long started;
+        long elapsed;
+        try (KafkaProducer<String, Object> producer = new KafkaProducer<>(producerProperties(bootstrap, producerOverrides))) {
+            started = System.nanoTime();
+            for (long i = 0; i < records; i++) {
+                limiter.acquire();
+                GenericRecord record = generator.generateRecord(schema);
+                long sentAt = System.nanoTime();
+                producer.send(new ProducerRecord<>(topic, 0, generator.randomKey(), record), (metadata, e) -> {
+                    if (e == null) {
+                        ackLatency.recordNanos(System.nanoTime() - sentAt);
+                        bytes.addAndGet(metadata.serializedValueSize());
+                    }
+                });
+            }
+            producer.flush();
+            elapsed = System.nanoTime() - started;
+        }
+        consumerThread.join(CONSUME_TIMEOUT.toMillis());
+        verifier.stop();
+        consumerThread.join();
+
+        double seconds = elapsed / 1e9;
+        return new Result(records / seconds, bytes.get() / seconds / (1024 * 1024),
+                ackLatency, verifier.endToEndLatency, verifier.valid);
+    }
+
+    private static Properties producerProperties(String bootstrap, Map<String, String> overrides) {
+        Properties props = new Properties();
+        props.put(ProducerConfig.BOOTSTRAP_SERVERS_CONFIG, bootstrap);
+        props.put(ProducerConfig.KEY_SERIALIZER_CLASS_CONFIG, StringSerializer.class.getName());
+        props.put(ProducerConfig.VALUE_SERIALIZER_CLASS_CONFIG, AvroSpecificSerializer.class.getName());
+        props.put(ProducerConfig.ACKS_CONFIG, "all");
+        props.putAll(overrides);
+        return props;
+    }
+
+    private record Result(double recordsPerSecond, double megabytesPerSecond,
+                          LatencyRecorder ackLatency, LatencyRecorder endToEndLatency, long valid) {
+    }
+
+    /**
+     * Consumes the run's topic from the beginning, decodes every value against the schema and
+     * records end-to-end latency from the producer's CreateTime timestamp.
+     */
+    private static final class Verifier implements Runnable {
+
+        private final KafkaConsumer<String, byte[]> consumer;
+        private final GenericDatumReader<GenericRecord> reader;
+        private final long expected;
+        private final LatencyRecorder endToEndLatency = new LatencyRecorder();
+        private volatile boolean running = true;
+        private volatile boolean assigned;
+        private long valid;
+
+        Verifier(String bootstrap, String topic, Schema schema, long expected) {
+            Properties props = new Properties();
+            props.put(ConsumerConfig.BOOTSTRAP_SERVERS_CONFIG, bootstrap);
+            props.put(ConsumerConfig.GROUP_ID_CONFIG, "e2e-verifier-" + topic);
+            props.put(ConsumerConfig.AUTO_OFFSET_RESET_CONFIG, "earliest");
+            props.put(ConsumerConfig.KEY_DESERIALIZER_CLASS_CONFIG, StringDeserializer.class.getName());
+            props.put(ConsumerConfig.VALUE_DESERIALIZER_CLASS_CONFIG, ByteArrayDeserializer.class.getName());
+            this.consumer = new KafkaConsumer<>(props);
+            this.consumer.assign(List.of(new TopicPartition(topic, 0)));
+            this.reader = new GenericDatumReader<>(schema);
+            this.expected = expected;
+        }
+
+        void awaitAssignment() throws InterruptedException {
+            while (!assigned) {
+                Thread.sleep(10);
+            }
+        }
+
+        void stop() {
+            running = false;
+        }
+
+        @Override
+        public void run() {
+            BinaryDecoder decoder = null;
+            GenericRecord reuse = null;
+            long seen = 0;
+            try (consumer) {
+                consumer.seekToBeginning(consumer.assignment());
+                consumer.poll(Duration.ZERO);
+                assigned = true;
+                while (running && seen < expected) {
+                    for (ConsumerRecord<String, byte[]> record : consumer.poll(Duration.ofMillis(100))) {
+                        long receivedAt = System.currentTimeMillis();
+                        seen++;
+                        try {
+                            decoder = DecoderFactory.get().binaryDecoder(record.value(), decoder);
+                            reuse = reader.read(reuse, decoder);
+                            if (decoder.isEnd()) {
+                                valid++;
+                            }
+                        } catch (Exception e) {
+                            // counted as invalid
+                        }
+                        endToEndLatency.recordNanos((receivedAt - record.timestamp()) * 1_000_000L);
+                    }
+                }
+            } finally {
+                assigned = true;
+            }
+        }
+    }
+}
@@ -0,0 +1,56 @@
+package com.fattahpour.fillavro.benchmark;
+
+import com.fattahpour.fillavro.avro.AvroRecordGenerator;
+import com.fattahpour.fillavro.config.AvroConfigProperties;
+import org.apache.avro.Schema;
+import org.apache.avro.generic.GenericRecord;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Throughput of {@link AvroRecordGenerator#generateRecord(Schema)} across schema shapes.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class GeneratorBenchmark {
+
+    @Param({"bundled", "narrow", "wide", "deep"})
+    public String shape;
+
+    /**
+     * 0 generates {@code String} values; otherwise text comes pre-encoded from pools of this size.
+     */
+    @Param({"0", "1024"})
+    public int stringPoolSize;
+
+    private Schema schema;
+    private AvroRecordGenerator generator;
+
+    @Setup
+    public void setUp() {
+        schema = SyntheticSchemas.forShape(shape);
+        AvroConfigProperties config = new AvroConfigProperties();
+        config.setStringPoolSize(stringPoolSize);
+        generator = new AvroRecordGenerator(config);
+    }
+
+    @Benchmark
+    public GenericRecord generateRecord() {
+        return generator.generateRecord(schema);
+    }
+}
@@ -0,0 +1,45 @@
+package com.fattahpour.fillavro.benchmark;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.regex.Pattern;
+
+/**
+ * Command-line parsing shared by the standalone harnesses ({@code --name=value} options).
+ */
+final class HarnessOptions {
+
+    private HarnessOptions() {
+    }
+
+    static Map<String, String> parse(String[] args) {
+        Map<String, String> options = new HashMap<>();
+        for (String arg : args) {
+            if (!arg.startsWith("--") || !arg.contains("=")) {
+                throw new IllegalArgumentException("Expected --name=value, got: " + arg);
+            }
+            String[] kv = arg.substring(2).split("=", 2);
+            options.put(kv[0], kv[1]);
+        }
+        return options;
+    }
+
+    /**
+     * Splits a comma-separated option value, dropping blank items.
+     */
+    static List<String> list(String value) {
+        return list(value, ",");
+    }
+
+    static List<String> list(String value, String separator) {
+        List<String> items = new ArrayList<>();
+        for (String item : value.split(Pattern.quote(separator))) {
+            if (!item.isBlank()) {
+                items.add(item.trim());
+            }
+        }
+        return items;
+    }
+}
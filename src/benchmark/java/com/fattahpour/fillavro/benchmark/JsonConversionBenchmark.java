@@ -0,0 +1,61 @@
+package com.fattahpour.fillavro.benchmark;
+
+import com.fattahpour.fillavro.avro.AvroRecordGenerator;
+import com.fattahpour.fillavro.kafka.JsonToSpecificProducer;
+import org.apache.avro.Schema;
+import org.apache.avro.generic.GenericDatumWriter;
+import org.apache.avro.generic.GenericRecord;
+import org.apache.avro.io.EncoderFactory;
+import org.apache.avro.io.JsonEncoder;
+import org.apache.avro.specific.SpecificRecord;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Throughput of the JSON-to-Avro path used by {@link JsonToSpecificProducer}.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class JsonConversionBenchmark {
+
+    private Schema schema;
+    private String json;
+
+    @Setup
+    public void setUp() throws IOException {
+        schema = SyntheticSchemas.forShape("bundled");
+        GenericRecord record = new AvroRecordGenerator().generateRecord(schema);
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        JsonEncoder encoder = EncoderFactory.get().jsonEncoder(schema, out);
+        new GenericDatumWriter<GenericRecord>(schema).write(record, encoder);
+        encoder.flush();
+        json = out.toString(StandardCharsets.UTF_8);
+    }
+
+    @Benchmark
+    public Object jsonToRecord() throws IOException {
+        return JsonToSpecificProducer.fromJson(schema, json);
+    }
+
+    @Benchmark
+    public byte[] jsonToAvroBytes() throws IOException {
+        return JsonToSpecificProducer.toAvroBytes((SpecificRecord) JsonToSpecificProducer.fromJson(schema, json), schema);
+    }
+}
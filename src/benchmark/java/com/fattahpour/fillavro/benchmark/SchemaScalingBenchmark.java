@@ -0,0 +1,66 @@
+package com.fattahpour.fillavro.benchmark;
+
+import com.fattahpour.fillavro.avro.AvroRecordGenerator;
+import com.fattahpour.fillavro.kafka.AvroSpecificSerializer;
+import org.apache.avro.Schema;
+import org.apache.avro.generic.GenericRecord;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Generation and serialization cost across synthetic schema sizes, for plotting scaling
+ * curves by field count and nesting depth. Each {@code shape} is a "fields x depth" pair; the
+ * default grid lists only pairs whose field count can fill the depth (5 fields cannot reach
+ * depth 5), and a pair passed with {@code -p shape=...} that cannot is rejected in setup.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class SchemaScalingBenchmark {
+
+    @Param({"5x1", "50x1", "50x5", "50x10", "500x1", "500x5", "500x10", "2000x1", "2000x5", "2000x10"})
+    public String shape;
+
+    private final AvroSpecificSerializer serializer = new AvroSpecificSerializer();
+    private Schema schema;
+    private AvroRecordGenerator generator;
+    private GenericRecord record;
+
+    @Setup
+    public void setUp() {
+        String[] pair = shape.split("x", 2);
+        int fields = Integer.parseInt(pair[0].trim());
+        int depth = Integer.parseInt(pair[1].trim());
+        if (fields < 2 * depth - 1) {
+            throw new IllegalStateException("Rejecting shape " + shape + ": a schema of depth " + depth
+                    + " needs at least " + (2 * depth - 1) + " fields");
+        }
+        schema = SyntheticSchemas.synthetic(fields, depth);
+        generator = new AvroRecordGenerator();
+        record = generator.generateRecord(schema);
+    }
+
+    @Benchmark
+    public GenericRecord generate() {
+        return generator.generateRecord(schema);
+    }
+
+    @Benchmark
+    public byte[] serialize() {
+        return serializer.serialize("bench", record);
+    }
+}
@@ -0,0 +1,60 @@
+package com.fattahpour.fillavro.benchmark;
+
+import com.fattahpour.fillavro.avro.AvroRecordGenerator;
+import com.fattahpour.fillavro.config.AvroConfigProperties;
+import com.fattahpour.fillavro.kafka.AvroSpecificSerializer;
+import org.apache.avro.Schema;
+import org.apache.avro.specific.SpecificData;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Throughput of {@link AvroSpecificSerializer#serialize(String, Object)} for the bundled
+ * schema as a GenericRecord and as the generated {@code ExampleUser} SpecificRecord, with
+ * {@code String} or pre-encoded {@code Utf8} text.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class SerializerBenchmark {
+
+    @Param({"generic", "specific"})
+    public String recordType;
+
+    /**
+     * 0 generates {@code String} values; otherwise text comes pre-encoded from pools of this size.
+     */
+    @Param({"0", "1024"})
+    public int stringPoolSize;
+
+    private final AvroSpecificSerializer serializer = new AvroSpecificSerializer();
+    private Object record;
+
+    @Setup
+    public void setUp() {
+        Schema schema = SyntheticSchemas.forShape("bundled");
+        AvroConfigProperties config = new AvroConfigProperties();
+        config.setStringPoolSize(stringPoolSize);
+        Object generic = new AvroRecordGenerator(config).generateRecord(schema);
+        record = "specific".equals(recordType) ? SpecificData.get().deepCopy(schema, generic) : generic;
+    }
+
+    @Benchmark
+    public byte[] serialize() {
+        return serializer.serialize("bench", record);
+    }
+}
@@ -0,0 +1,165 @@
+package com.fattahpour.fillavro.benchmark;
+
+import org.apache.kafka.clients.admin.NewTopic;
+import org.springframework.kafka.test.EmbeddedKafkaKraftBroker;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.jar.JarFile;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Startup harness: launches the packaged application in fresh JVMs against an embedded Kafka
+ * (KRaft) broker, sending a single record per run, and reports the median time-to-first-record
+ * (JVM start until the first record is handed to the producer) and total run time per variant:
+ * <ul>
+ *   <li>{@code default} &mdash; plain JVM</li>
+ *   <li>{@code cds} &mdash; with a dynamic class-data-sharing archive recorded by a training run</li>
+ *   <li>{@code aot} &mdash; with Spring AOT initializers ({@code -Dspring.aot.enabled=true}),
+ *       requires a jar built with {@code mvn -Paot package}</li>
+ *   <li>{@code aot-cds} &mdash; both</li>
+ * </ul>
+ * The jar is extracted with Spring Boot's {@code jarmode=tools} first, since CDS archives
+ * cannot cover classes loaded from nested jars.
+ *
+ * <p>Options ({@code --name=value}): {@code jar} (default target/fill-avro-1.0.0.jar),
+ * {@code runs} per variant (default 5), {@code variants} (default default,cds,aot,aot-cds),
+ * {@code work} directory (default target/startup) and {@code jvm-args} added to every launch.
+ */
+public final class StartupBenchmark {
+
+    private static final Pattern FIRST_RECORD = Pattern.compile("First record ready (\\d+) ms after JVM start");
+    private static final String AOT_MARKER = "BOOT-INF/classes/com/fattahpour/fillavro/FillAvroApplication__ApplicationContextInitializer.class";
+    private static final String TOPIC = "startup";
+
+    private StartupBenchmark() {
+    }
+
+    public static void main(String[] args) throws Exception {
+        ((ch.qos.logback.classic.Logger) org.slf4j.LoggerFactory.getLogger(org.slf4j.Logger.ROOT_LOGGER_NAME))
+                .setLevel(ch.qos.logback.classic.Level.WARN);
+        Map<String, String> options = HarnessOptions.parse(args);
+        Path jar = Path.of(options.getOrDefault("jar", "target/fill-avro-1.0.0.jar"));
+        int runs = Integer.parseInt(options.getOrDefault("runs", "5"));
+        List<String> variants = HarnessOptions.list(options.getOrDefault("variants", "default,cds,aot,aot-cds"));
+        Path work = Path.of(options.getOrDefault("work", "target/startup"));
+        List<String> extraJvmArgs = HarnessOptions.list(options.getOrDefault("jvm-args", ""), " ");
+        if (!Files.isRegularFile(jar)) {
+            throw new IllegalArgumentException("Jar not found: " + jar + " (build it with mvn package)");
+        }
+
+        boolean aotBuilt;
+        try (JarFile jarFile = new JarFile(jar.toFile())) {
+            aotBuilt = jarFile.getEntry(AOT_MARKER) != null;
+        }
+        Path extracted = extract(jar, work.resolve("extracted"));
+
+        EmbeddedKafkaKraftBroker broker = new EmbeddedKafkaKraftBroker(1, 1);
+        broker.afterPropertiesSet();
+        try {
+            broker.addTopics(new NewTopic(TOPIC, 1, (short) 1));
+            System.out.printf("%n%-10s %5s %26s %26s%n", "variant", "runs", "first record ms (med/min)", "total ms (med/min)");
+            for (String variant : variants) {
+                boolean aot = variant.startsWith("aot");
+                boolean cds = variant.endsWith("cds");
+                if (aot && !aotBuilt) {
+                    System.out.printf("%-10s skipped: jar was not built with -Paot%n", variant);
+                    continue;
+                }
+                List<String> jvmArgs = new ArrayList<>(extraJvmArgs);
+                if (aot) {
+                    jvmArgs.add("-Dspring.aot.enabled=true");
+                }
+                if (cds) {
+                    Path archive = work.resolve(variant + ".jsa").toAbsolutePath();
+                    Files.deleteIfExists(archive);
+                    List<String> training = new ArrayList<>(jvmArgs);
+                    training.add("-XX:ArchiveClassesAtExit=" + archive);
+                    launch(extracted, training, broker.getBrokersAsString());
+                    jvmArgs.add("-XX:SharedArchiveFile=" + archive);
+                }
+                List<Long> firstRecord = new ArrayList<>();
+                List<Long> total = new ArrayList<>();
+                for (int i = 0; i < runs; i++) {
+                    Run run = launch(extracted, jvmArgs, broker.getBrokersAsString());
+                    firstRecord.add(run.firstRecordMillis());
+                    total.add(run.totalMillis());
+                }
+                System.out.printf("%-10s %5d %26s %26s%n", variant, runs,
+                        median(firstRecord) + " / " + Collections.min(firstRecord),
+                        median(total) + " / " + Collections.min(total));
+            }
+        } finally {
+            broker.destroy();
+        }
+    }
+
+    private static Path extract(Path jar, Path destination) throws IOException, InterruptedException {
+        Process process = new ProcessBuilder(javaExecutable(), "-Djarmode=tools", "-jar", jar.toString(),
+                "extract", "--destination", destination.toString(), "--force")
+                .redirectErrorStream(true)
+                .start();
+        String output = new String(process.getInputStream().readAllBytes(), StandardCharsets.UTF_8);
+        if (process.waitFor() != 0) {
+            throw new IllegalStateException("Extracting " + jar + " failed:\n" + output);
+        }
+        return destination.resolve(jar.getFileName());
+    }
+
+    private static Run launch(Path jar, List<String> jvmArgs, String bootstrapServers) throws IOException, InterruptedException {
+        List<String> command = new ArrayList<>();
+        command.add(javaExecutable());
+        command.addAll(jvmArgs);
+        command.add("-jar");
+        command.add(jar.toString());
+        command.add("--spring.kafka.bootstrap-servers=" + bootstrapServers);
+        command.add("--app.kafka.topic=" + TOPIC);
+        command.add("--app.sender.count=1");
+        command.add("--spring.main.banner-mode=off");
+        command.add("--logging.level.root=WARN");
+        command.add("--logging.level.com.fattahpour.fillavro.kafka.StartupKafkaSender=INFO");
+
+        long started = System.nanoTime();
+        Process process = new ProcessBuilder(command).redirectErrorStream(true).start();
+        long firstRecord = -1;
+        StringBuilder output = new StringBuilder();
+        try (BufferedReader reader = new BufferedReader(new InputStreamReader(process.getInputStream(), StandardCharsets.UTF_8))) {
+            String line;
+            while ((line = reader.readLine()) != null) {
+                output.append(line).append('\n');
+                Matcher matcher = FIRST_RECORD.matcher(line);
+                if (matcher.find()) {
+                    firstRecord = Long.parseLong(matcher.group(1));
+                }
+            }
+        }
+        int exit = process.waitFor();
+        long total = (System.nanoTime() - started) / 1_000_000;
+        if (exit != 0 || firstRecord < 0) {
+            throw new IllegalStateException("Run failed (exit " + exit + "): " + command + "\n" + output);
+        }
+        return new Run(firstRecord, total);
+    }
+
+    private static String javaExecutable() {
+        return Path.of(System.getProperty("java.home"), "bin", "java").toString();
+    }
+
+    private static long median(List<Long> values) {
+        List<Long> sorted = new ArrayList<>(values);
+        Collections.sort(sorted);
+        return sorted.get(sorted.size() / 2);
+    }
+
+    private record Run(long firstRecordMillis, long totalMillis) {
+    }
+}
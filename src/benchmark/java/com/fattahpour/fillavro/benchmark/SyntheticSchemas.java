@@ -0,0 +1,36 @@
+package com.fattahpour.fillavro.benchmark;
+
+import com.fattahpour.fillavro.avro.AvroSchemaLoader;
+import com.fattahpour.fillavro.avro.SchemaShape;
+import com.fattahpour.fillavro.avro.SyntheticSchemaGenerator;
+import org.apache.avro.Schema;
+
+/**
+ * Schemas exercised by the benchmarks: the bundled {@code schema.avsc} plus synthetic
+ * narrow, wide and deeply nested records from {@link SyntheticSchemaGenerator}.
+ */
+final class SyntheticSchemas {
+
+    private SyntheticSchemas() {
+    }
+
+    static Schema forShape(String shape) {
+        return switch (shape) {
+            case "bundled" -> new AvroSchemaLoader().load("schema.avsc");
+            case "narrow" -> synthetic(5, 1);
+            case "wide" -> synthetic(2000, 1);
+            case "deep" -> synthetic(60, 10);
+            default -> throw new IllegalArgumentException("Unknown schema shape: " + shape);
+        };
+    }
+
+    /**
+     * Synthetic schema with the given size; fails if the field count cannot fill the depth
+     * (a depth of d needs at least 2d - 1 fields).
+     */
+    static Schema synthetic(int fields, int depth) {
+        return new SyntheticSchemaGenerator().generate(new SchemaShape()
+                .setFieldCount(fields)
+                .setDepth(depth));
+    }
+}
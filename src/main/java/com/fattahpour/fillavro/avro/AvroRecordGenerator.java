@@ -7,16 +7,21 @@ import org.apache.avro.generic.GenericRecord;
 import org.springframework.stereotype.Component;
 
 import com.fattahpour.fillavro.config.AvroConfigProperties;
+import com.fattahpour.fillavro.config.InstanceProperties;
 import org.springframework.beans.factory.annotation.Autowired;
 
 import java.nio.ByteBuffer;
 import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Collection;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Locale;
 import java.util.Map;
 import java.util.Objects;
-import java.util.concurrent.ThreadLocalRandom;
+import java.util.Random;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
 import java.util.stream.Collectors;
 
 @Component
@@ -26,6 +31,22 @@ public class AvroRecordGenerator {
 
     private final AvroConfigProperties config;
 
+    private final EntityRegistry entityRegistry;
+
+    private final InstanceProperties instance;
+
+    private final long keyNamespace;
+
+    private final AtomicLong keySequence = new AtomicLong();
+
+    private final Utf8Pool stringPool;
+
+    private final Map<String, StringKind> stringKinds = new ConcurrentHashMap<>();
+
+    private final PayloadSizeDistribution payloadSizes;
+
+    private final PayloadSizer payloadSizer;
+
     public AvroRecordGenerator() {
         this(new Faker(Locale.ENGLISH), new AvroConfigProperties());
     }
@@ -35,20 +56,58 @@ public class AvroRecordGenerator {
     }
 
     public AvroRecordGenerator(Faker faker, AvroConfigProperties config) {
+        this(faker, config, null);
+    }
+
+    public AvroRecordGenerator(Faker faker, AvroConfigProperties config, EntityRegistry entityRegistry) {
+        this(faker, config, entityRegistry, null);
+    }
+
+    public AvroRecordGenerator(Faker faker, AvroConfigProperties config, EntityRegistry entityRegistry,
+                               InstanceProperties instance) {
         this.faker = Objects.requireNonNull(faker);
         this.config = config == null ? new AvroConfigProperties() : config;
+        this.entityRegistry = entityRegistry == null ? new EntityRegistry(this.config) : entityRegistry;
+        this.instance = instance == null ? new InstanceProperties() : instance;
+        this.stringPool = new Utf8Pool(this.config.getStringPoolSize());
+        this.instance.validate();
+        // shared by all instances of a seeded run, so their key slices never overlap
+        this.keyNamespace = this.config.getSeed() == null ? faker.random().nextLong() : this.config.getSeed();
+        this.payloadSizes = PayloadSizeDistribution.from(this.config.getPayloadSize());
+        this.payloadSizer = new PayloadSizer(faker.random(),
+                path -> !hasOverride(path) && !isIdField(path) && !isEntityField(path));
     }
 
-    @Autowired
     public AvroRecordGenerator(AvroConfigProperties config) {
-        this(new Faker(Locale.ENGLISH), config);
+        this(config, null, null);
+    }
+
+    @Autowired
+    public AvroRecordGenerator(AvroConfigProperties config, EntityRegistry entityRegistry, InstanceProperties instance) {
+        this(newFaker(config, instance), config, entityRegistry, instance);
+    }
+
+    /**
+     * Creates a Faker whose random stream is derived from the configured seed and instance index,
+     * or an unseeded one when no seed is configured.
+     */
+    private static Faker newFaker(AvroConfigProperties config, InstanceProperties instance) {
+        if (config == null || config.getSeed() == null) {
+            return new Faker(Locale.ENGLISH);
+        }
+        InstanceProperties shard = instance == null ? new InstanceProperties() : instance;
+        return new Faker(Locale.ENGLISH, new Random(shard.seed(config.getSeed())));
     }
 
     public GenericRecord generateRecord(Schema schema) {
         if (schema.getType() != Schema.Type.RECORD) {
             throw new IllegalArgumentException("Schema must be a record");
         }
-        return generateRecord(schema, "");
+        GenericRecord record = generateRecord(schema, "");
+        if (payloadSizes.isEnabled()) {
+            payloadSizer.fit(record, payloadSizes.sample(faker.random()));
+        }
+        return record;
     }
 
     private GenericRecord generateRecord(Schema schema, String path) {
@@ -60,8 +119,59 @@ public class AvroRecordGenerator {
         return record;
     }
 
+    /**
+     * Pads or trims the values at or below {@code fieldPaths} so that {@code record} is
+     * {@code targetBytes} long again, e.g. after {@link #regenerateField} changed them; all other
+     * fields keep their values. Does nothing unless payload sizing is enabled. Returns whether the
+     * target was reached, which is impossible if none of those values is a string, bytes or
+     * collection.
+     */
+    public boolean refitPayload(GenericRecord record, int targetBytes, Collection<String> fieldPaths) {
+        if (!payloadSizes.isEnabled()) {
+            return true;
+        }
+        return payloadSizer.fit(record, targetBytes, path -> fieldPaths.stream()
+                .anyMatch(field -> path.equals(field) || path.startsWith(field + "."))) == targetBytes;
+    }
+
+    /**
+     * Replaces a single field of {@code record} with a freshly generated value. Nested record
+     * fields are addressed with dot-notation, e.g. "address.city".
+     */
+    public void regenerateField(GenericRecord record, String fieldPath) {
+        GenericRecord parent = record;
+        String parentPath = "";
+        String[] parts = fieldPath.split("\\.");
+        for (int i = 0; i < parts.length - 1; i++) {
+            Object nested = parent.get(parts[i]);
+            if (!(nested instanceof GenericRecord)) {
+                throw new IllegalArgumentException("Field path " + fieldPath + " does not address a nested record field");
+            }
+            parent = (GenericRecord) nested;
+            parentPath = parentPath.isEmpty() ? parts[i] : parentPath + "." + parts[i];
+        }
+        Schema.Field field = parent.getSchema().getField(parts[parts.length - 1]);
+        if (field == null) {
+            throw new IllegalArgumentException("Unknown field " + fieldPath + " in schema " + record.getSchema().getFullName());
+        }
+        parent.put(field.pos(), generateValue(field.schema(), field.name(), parentPath));
+    }
+
+    /**
+     * Seed for a named auxiliary random stream of this instance, e.g. for sampling outside the
+     * generator. Derived from the configured seed (random per run when none is set), the stream
+     * name and the instance index; consumes neither keys nor the generator's own random stream.
+     */
+    public long streamSeed(String stream) {
+        return instance.seed(keyNamespace + stream.hashCode());
+    }
+
+    /**
+     * Returns a UUID-formatted key from this instance's slice of the key space; keys never repeat
+     * and never collide with keys of other instances (see {@link InstanceProperties}).
+     */
     public String randomKey() {
-        return faker.internet().uuid();
+        return instance.key(keyNamespace, keySequence.getAndIncrement());
     }
 
     private Object generateValue(Schema schema, String fieldName, String path) {
@@ -75,6 +185,12 @@ public class AvroRecordGenerator {
             String chosen = overrides.get(faker.random().nextInt(overrides.size()));
             return convertOverrideToType(schema, chosen);
         }
+        if (schema.getType() == Schema.Type.STRING) {
+            String entityId = generateEntityId(fullPath, fieldName);
+            if (entityId != null) {
+                return entityId;
+            }
+        }
 
         return switch (schema.getType()) {
             case RECORD -> generateRecord(schema, fullPath);
@@ -94,6 +210,42 @@ public class AvroRecordGenerator {
         };
     }
 
+    /**
+     * Returns a referenced or newly minted entity ID when the field is mapped to an entity type.
+     */
+    private String generateEntityId(String fullPath, String fieldName) {
+        AvroConfigProperties.Entities entities = config.getEntities();
+        String refType = entities.getRefs().getOrDefault(fullPath, entities.getRefs().get(fieldName));
+        if (refType != null) {
+            String id = entityRegistry.sampleId(refType, faker.random());
+            if (id != null) {
+                return id;
+            }
+        }
+        String idType = entities.getIds().getOrDefault(fullPath, entities.getIds().get(fieldName));
+        return idType == null ? null : entityRegistry.newId(idType, faker.random());
+    }
+
+    /**
+     * Whether the field is mapped under {@code app.avro.entities.ids} or {@code refs}; its value
+     * must be emitted exactly as registered, so it is never resized.
+     */
+    private boolean isEntityField(String fullPath) {
+        String fieldName = fullPath.substring(fullPath.lastIndexOf('.') + 1);
+        AvroConfigProperties.Entities entities = config.getEntities();
+        return entities.getIds().containsKey(fullPath) || entities.getIds().containsKey(fieldName)
+                || entities.getRefs().containsKey(fullPath) || entities.getRefs().containsKey(fieldName);
+    }
+
+    private boolean hasOverride(String fullPath) {
+        String fieldName = fullPath.substring(fullPath.lastIndexOf('.') + 1);
+        List<String> overrides = config.getFields().get(fullPath);
+        if (overrides == null || overrides.isEmpty()) {
+            overrides = config.getFields().get(fieldName);
+        }
+        return overrides != null && !overrides.isEmpty();
+    }
+
     private Object convertOverrideToType(Schema schema, String value) {
         if (value == null) return null;
         switch (schema.getType()) {
@@ -172,10 +324,11 @@ public class AvroRecordGenerator {
 
     private List<Object> generateArray(Schema elementType, String fieldName, String path) {
         int size = faker.random().nextInt(1, 3);
-        return ThreadLocalRandom.current()
-                .ints(size, 0, Integer.MAX_VALUE)
-                .mapToObj(ignored -> generateValue(elementType, fieldName, path))
-                .collect(Collectors.toList());
+        List<Object> list = new ArrayList<>(size);
+        for (int i = 0; i < size; i++) {
+            list.add(generateValue(elementType, fieldName, path));
+        }
+        return list;
     }
 
     private Map<String, Object> generateMap(Schema valueType, String fieldName, String path) {
@@ -197,57 +350,103 @@ public class AvroRecordGenerator {
         return new GenericData.Fixed(schema, randomBytes(schema.getFixedSize()));
     }
 
-    private String generateStringValue(String fieldName) {
+    /**
+     * Kinds of generated text, derived from the field name. Kinds whose values must stay unique
+     * (ids, timestamps) are never pooled.
+     */
+    private enum StringKind {
+        EMAIL(true), FIRST_NAME(true), LAST_NAME(true), FULL_NAME(true), ADDRESS(true), STREET(true),
+        CITY(true), STATE(true), COUNTRY(true), POSTAL_CODE(true), PHONE(true), ID(false), URL(true),
+        IP(true), DATE_TIME(false), AMOUNT(true), TEXT(true);
+
+        private final boolean poolable;
+
+        StringKind(boolean poolable) {
+            this.poolable = poolable;
+        }
+    }
+
+    private CharSequence generateStringValue(String fieldName) {
+        StringKind kind = stringKinds.computeIfAbsent(fieldName, AvroRecordGenerator::stringKind);
+        if (kind.poolable && stringPool.isEnabled()) {
+            return stringPool.get(kind.name(), faker.random(), () -> generateString(kind));
+        }
+        return generateString(kind);
+    }
+
+    private static StringKind stringKind(String fieldName) {
         String lower = fieldName.toLowerCase(Locale.ENGLISH);
         if (lower.contains("email")) {
-            return faker.internet().emailAddress();
+            return StringKind.EMAIL;
         }
         if (lower.contains("firstname") || (lower.contains("first") && lower.contains("name"))) {
-            return faker.name().firstName();
+            return StringKind.FIRST_NAME;
         }
         if (lower.contains("lastname") || lower.contains("surname") || (lower.contains("last") && lower.contains("name"))) {
-            return faker.name().lastName();
+            return StringKind.LAST_NAME;
         }
         if (lower.equals("name") || lower.contains("fullname")) {
-            return faker.name().fullName();
+            return StringKind.FULL_NAME;
         }
         if (isAddressField(lower)) {
-            return faker.address().fullAddress();
+            return StringKind.ADDRESS;
         }
         if (lower.contains("street")) {
-            return faker.address().streetAddress();
+            return StringKind.STREET;
         }
         if (lower.contains("city")) {
-            return faker.address().city();
+            return StringKind.CITY;
         }
         if (lower.contains("state")) {
-            return faker.address().state();
+            return StringKind.STATE;
         }
         if (lower.contains("country")) {
-            return faker.address().country();
+            return StringKind.COUNTRY;
         }
         if (lower.contains("postal") || lower.contains("zip")) {
-            return faker.address().zipCode();
+            return StringKind.POSTAL_CODE;
         }
         if (lower.contains("phone") || lower.contains("mobile")) {
-            return faker.phoneNumber().phoneNumber();
+            return StringKind.PHONE;
         }
         if (lower.endsWith("id") || lower.contains("userid")) {
-            return faker.internet().uuid();
+            return StringKind.ID;
         }
         if (lower.contains("url") || lower.contains("website")) {
-            return faker.internet().url();
+            return StringKind.URL;
         }
         if (lower.contains("ip")) {
-            return faker.internet().ipV4Address();
+            return StringKind.IP;
         }
         if (isDateTimeField(lower)) {
-            return String.valueOf(randomEpochMillis());
+            return StringKind.DATE_TIME;
         }
         if (isAmountField(lower)) {
-            return faker.commerce().price(10, 5000);
+            return StringKind.AMOUNT;
         }
-        return faker.lorem().sentence();
+        return StringKind.TEXT;
+    }
+
+    private String generateString(StringKind kind) {
+        return switch (kind) {
+            case EMAIL -> faker.internet().emailAddress();
+            case FIRST_NAME -> faker.name().firstName();
+            case LAST_NAME -> faker.name().lastName();
+            case FULL_NAME -> faker.name().fullName();
+            case ADDRESS -> faker.address().fullAddress();
+            case STREET -> faker.address().streetAddress();
+            case CITY -> faker.address().city();
+            case STATE -> faker.address().state();
+            case COUNTRY -> faker.address().country();
+            case POSTAL_CODE -> faker.address().zipCode();
+            case PHONE -> faker.phoneNumber().phoneNumber();
+            case ID -> faker.internet().uuid();
+            case URL -> faker.internet().url();
+            case IP -> faker.internet().ipV4Address();
+            case DATE_TIME -> String.valueOf(randomEpochMillis());
+            case AMOUNT -> faker.commerce().price(10, 5000);
+            case TEXT -> faker.lorem().sentence();
+        };
     }
 
     private Integer generateIntValue(String fieldName) {
@@ -288,16 +487,20 @@ public class AvroRecordGenerator {
         return faker.number().randomDouble(2, 0, 1000);
     }
 
-    private boolean isAddressField(String lower) {
+    private boolean isIdField(String fullPath) {
+        return fullPath.substring(fullPath.lastIndexOf('.') + 1).toLowerCase(Locale.ENGLISH).endsWith("id");
+    }
+
+    private static boolean isAddressField(String lower) {
         return lower.contains("address") || lower.contains("street") || lower.contains("city") || lower.contains("state");
     }
 
-    private boolean isDateTimeField(String lower) {
+    private static boolean isDateTimeField(String lower) {
         return lower.contains("created") || lower.contains("updated") || lower.contains("timestamp")
                 || lower.contains("date") || lower.contains("time");
     }
 
-    private boolean isAmountField(String lower) {
+    private static boolean isAmountField(String lower) {
         return lower.contains("amount") || lower.contains("price") || lower.contains("balance");
     }
 
@@ -307,8 +510,6 @@ public class AvroRecordGenerator {
     }
 
     private byte[] randomBytes(int size) {
-        byte[] bytes = new byte[size];
-        java.util.concurrent.ThreadLocalRandom.current().nextBytes(bytes);
-        return bytes;
+        return faker.random().nextRandomBytes(size);
     }
 }
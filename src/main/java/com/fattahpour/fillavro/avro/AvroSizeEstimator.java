@@ -0,0 +1,117 @@
+package com.fattahpour.fillavro.avro;
+
+import org.apache.avro.Schema;
+import org.apache.avro.generic.GenericData;
+import org.apache.avro.generic.GenericEnumSymbol;
+import org.apache.avro.generic.GenericFixed;
+import org.apache.avro.generic.IndexedRecord;
+import org.apache.avro.util.Utf8;
+
+import java.nio.ByteBuffer;
+import java.util.Collection;
+import java.util.Map;
+
+/**
+ * Computes the Avro binary-encoded size of a datum by walking it against its
+ * schema, without encoding it. Used to steer generated payload sizes cheaply.
+ */
+public final class AvroSizeEstimator {
+
+    private AvroSizeEstimator() {
+    }
+
+    public static int sizeOf(Schema schema, Object datum) {
+        switch (schema.getType()) {
+            case RECORD:
+                IndexedRecord record = (IndexedRecord) datum;
+                int size = 0;
+                for (Schema.Field field : schema.getFields()) {
+                    size += sizeOf(field.schema(), record.get(field.pos()));
+                }
+                return size;
+            case ARRAY:
+                Collection<?> items = (Collection<?>) datum;
+                if (items.isEmpty()) {
+                    return 1;
+                }
+                int arraySize = longSize(items.size()) + 1;
+                for (Object item : items) {
+                    arraySize += sizeOf(schema.getElementType(), item);
+                }
+                return arraySize;
+            case MAP:
+                Map<?, ?> map = (Map<?, ?>) datum;
+                if (map.isEmpty()) {
+                    return 1;
+                }
+                int mapSize = longSize(map.size()) + 1;
+                for (Map.Entry<?, ?> e : map.entrySet()) {
+                    mapSize += stringSize(e.getKey()) + sizeOf(schema.getValueType(), e.getValue());
+                }
+                return mapSize;
+            case UNION:
+                int index = GenericData.get().resolveUnion(schema, datum);
+                return longSize(index) + sizeOf(schema.getTypes().get(index), datum);
+            case ENUM:
+                String symbol = datum instanceof GenericEnumSymbol ? datum.toString() : String.valueOf(datum);
+                return longSize(schema.getEnumOrdinal(symbol));
+            case FIXED:
+                return schema.getFixedSize();
+            case STRING:
+                return stringSize(datum);
+            case BYTES:
+                int length = datum instanceof ByteBuffer ? ((ByteBuffer) datum).remaining() : ((GenericFixed) datum).bytes().length;
+                return longSize(length) + length;
+            case INT:
+                return longSize(((Number) datum).intValue());
+            case LONG:
+                return longSize(((Number) datum).longValue());
+            case FLOAT:
+                return 4;
+            case DOUBLE:
+                return 8;
+            case BOOLEAN:
+                return 1;
+            case NULL:
+                return 0;
+            default:
+                throw new IllegalArgumentException("Unsupported schema type: " + schema.getType());
+        }
+    }
+
+    public static int stringSize(Object datum) {
+        int length = datum instanceof Utf8 ? ((Utf8) datum).getByteLength() : utf8Length(datum.toString());
+        return longSize(length) + length;
+    }
+
+    public static int utf8Length(CharSequence s) {
+        int length = 0;
+        for (int i = 0; i < s.length(); i++) {
+            char c = s.charAt(i);
+            if (c < 0x80) {
+                length++;
+            } else if (c < 0x800) {
+                length += 2;
+            } else if (Character.isHighSurrogate(c) && i + 1 < s.length() && Character.isLowSurrogate(s.charAt(i + 1))) {
+                length += 4;
+                i++;
+            } else {
+                length += 3;
+            }
+        }
+        return length;
+    }
+
+    /**
+     * Size of a zig-zag varint as written by Avro for int and long values.
+     */
+    public static int longSize(long value) {
+        long n = (value << 1) ^ (value >> 63);
+        int size = 1;
+        while ((n & ~0x7FL) != 0) {
+            n >>>= 7;
+            size++;
+        }
+        return size;
+    }
+}
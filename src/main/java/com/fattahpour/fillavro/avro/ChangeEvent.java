@@ -0,0 +1,37 @@
+package com.fattahpour.fillavro.avro;
+
+import org.apache.avro.generic.GenericRecord;
+
+/**
+ * A change-data-capture style event: the key and the record's new state, or a null value
+ * (a tombstone) when the key was deleted.
+ */
+public class ChangeEvent {
+
+    public enum Op { INSERT, UPDATE, DELETE }
+
+    private final Op op;
+    private final String key;
+    private final GenericRecord value;
+
+    public ChangeEvent(Op op, String key, GenericRecord value) {
+        this.op = op;
+        this.key = key;
+        this.value = value;
+    }
+
+    public Op getOp() {
+        return op;
+    }
+
+    public String getKey() {
+        return key;
+    }
+
+    /**
+     * The latest state of the record, or null for a delete (tombstone).
+     */
+    public GenericRecord getValue() {
+        return value;
+    }
+}
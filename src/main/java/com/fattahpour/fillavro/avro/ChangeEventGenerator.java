@@ -0,0 +1,150 @@
+package com.fattahpour.fillavro.avro;
+
+import com.fattahpour.fillavro.config.SenderProperties;
+import org.apache.avro.Schema;
+import org.apache.avro.generic.GenericDatumReader;
+import org.apache.avro.generic.GenericDatumWriter;
+import org.apache.avro.generic.GenericRecord;
+import org.apache.avro.io.BinaryDecoder;
+import org.apache.avro.io.BinaryEncoder;
+import org.apache.avro.io.DecoderFactory;
+import org.apache.avro.io.EncoderFactory;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.SplittableRandom;
+
+/**
+ * Emits change-data-capture style traffic for one schema: inserts of new keys, updates that
+ * re-emit an existing key with only a few fields regenerated, and deletes that emit a
+ * tombstone. The latest state of each live key is kept in a {@link LatestStateStore} bounded
+ * by key count and bytes, so cold keys are eventually evicted and stop receiving updates.
+ * Not thread-safe.
+ */
+public class ChangeEventGenerator {
+
+    private final AvroRecordGenerator generator;
+    private final Schema schema;
+    private final String keyField;
+    private final List<String> mutableFields;
+    private final int fieldsPerUpdate;
+    private final int insertWeight;
+    private final int updateWeight;
+    private final int totalWeight;
+    private final SplittableRandom random;
+    private final LatestStateStore store;
+
+    private final GenericDatumWriter<GenericRecord> writer;
+    private final GenericDatumReader<GenericRecord> reader;
+    private final ByteArrayOutputStream out = new ByteArrayOutputStream();
+    private BinaryEncoder encoder;
+    private BinaryDecoder decoder;
+
+    public ChangeEventGenerator(AvroRecordGenerator generator, Schema schema, SenderProperties.Cdc cdc) {
+        this.generator = generator;
+        this.schema = schema;
+        this.keyField = cdc.getKeyField() == null ? "" : cdc.getKeyField().trim();
+        if (!keyField.isEmpty() && schema.getField(keyField) == null) {
+            throw new IllegalArgumentException("CDC key field " + keyField + " not found in schema " + schema.getFullName());
+        }
+        this.mutableFields = new ArrayList<>();
+        if (cdc.getMutableFields().isEmpty()) {
+            for (Schema.Field field : schema.getFields()) {
+                if (!field.name().equals(keyField)) {
+                    mutableFields.add(field.name());
+                }
+            }
+        } else {
+            for (String field : cdc.getMutableFields()) {
+                String name = field.trim();
+                if (!keyField.isEmpty() && (name.equals(keyField) || name.startsWith(keyField + "."))) {
+                    throw new IllegalArgumentException("CDC key field " + keyField
+                            + " cannot be a mutable field: updates would change the record's key");
+                }
+                mutableFields.add(name);
+            }
+        }
+        this.fieldsPerUpdate = Math.min(Math.max(1, cdc.getFieldsPerUpdate()), mutableFields.size());
+        this.insertWeight = cdc.getInsertWeight();
+        this.updateWeight = cdc.getUpdateWeight();
+        this.totalWeight = cdc.getInsertWeight() + cdc.getUpdateWeight() + cdc.getDeleteWeight();
+        if (insertWeight <= 0 || totalWeight <= 0) {
+            throw new IllegalArgumentException("CDC insert weight must be > 0 so that keys exist to update or delete");
+        }
+        this.random = new SplittableRandom(generator.streamSeed("cdc-events"));
+        this.store = new LatestStateStore(cdc.getMaxKeys(), cdc.getMaxBytes(), random);
+        this.writer = new GenericDatumWriter<>(schema);
+        this.reader = new GenericDatumReader<>(schema);
+    }
+
+    public ChangeEvent next() {
+        int pick = random.nextInt(totalWeight);
+        if (pick >= insertWeight && store.size() > 0) {
+            String key = store.randomKey();
+            if (pick < insertWeight + updateWeight) {
+                return update(key);
+            }
+            store.remove(key);
+            return new ChangeEvent(ChangeEvent.Op.DELETE, key, null);
+        }
+        return insert();
+    }
+
+    /**
+     * Number of keys whose latest state is currently retained.
+     */
+    public int liveKeys() {
+        return store.size();
+    }
+
+    public long evictions() {
+        return store.evictions();
+    }
+
+    private ChangeEvent insert() {
+        GenericRecord record = generator.generateRecord(schema);
+        String key = keyField.isEmpty() ? generator.randomKey() : String.valueOf(record.get(keyField));
+        store.put(key, encode(record));
+        return new ChangeEvent(ChangeEvent.Op.INSERT, key, record);
+    }
+
+    private ChangeEvent update(String key) {
+        byte[] state = store.get(key);
+        GenericRecord record = decode(state);
+        List<String> candidates = new ArrayList<>(mutableFields);
+        List<String> updated = new ArrayList<>(fieldsPerUpdate);
+        for (int i = 0; i < fieldsPerUpdate; i++) {
+            String field = candidates.remove(random.nextInt(candidates.size()));
+            generator.regenerateField(record, field);
+            updated.add(field);
+        }
+        // keep the key at its sampled payload size; only the updated fields are resized
+        generator.refitPayload(record, state.length, updated);
+        store.put(key, encode(record));
+        return new ChangeEvent(ChangeEvent.Op.UPDATE, key, record);
+    }
+
+    private byte[] encode(GenericRecord record) {
+        try {
+            out.reset();
+            encoder = EncoderFactory.get().binaryEncoder(out, encoder);
+            writer.write(record, encoder);
+            encoder.flush();
+            return out.toByteArray();
+        } catch (IOException e) {
+            throw new UncheckedIOException("Failed to encode record state", e);
+        }
+    }
+
+    private GenericRecord decode(byte[] bytes) {
+        try {
+            decoder = DecoderFactory.get().binaryDecoder(bytes, decoder);
+            return reader.read(null, decoder);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Failed to decode record state", e);
+        }
+    }
+}
@@ -0,0 +1,116 @@
+package com.fattahpour.fillavro.avro;
+
+import com.fattahpour.fillavro.config.AvroConfigProperties;
+import net.datafaker.service.RandomService;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+
+import java.nio.ByteBuffer;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Registry of generated entity IDs shared by all generators, so that foreign-key fields can
+ * reference IDs that were actually emitted. IDs are random (version 4) UUIDs stored as two
+ * longs in off-heap chunks: 16 bytes per ID, with no per-ID objects. Each entity type keeps at
+ * most {@code capacity} IDs; once full, new IDs overwrite the oldest. Registering and sampling
+ * are O(1).
+ */
+@Component
+public class EntityRegistry {
+
+    private static final int CHUNK_BITS = 16;
+    private static final int CHUNK_SIZE = 1 << CHUNK_BITS;
+    private static final int ID_BYTES = 16;
+
+    private final int capacity;
+    private final Map<String, IdStore> stores = new ConcurrentHashMap<>();
+
+    public EntityRegistry() {
+        this(new AvroConfigProperties());
+    }
+
+    @Autowired
+    public EntityRegistry(AvroConfigProperties config) {
+        this(config.getEntities().getCapacity());
+    }
+
+    public EntityRegistry(int capacity) {
+        if (capacity <= 0) {
+            throw new IllegalArgumentException("Entity capacity must be > 0, got " + capacity);
+        }
+        this.capacity = capacity;
+    }
+
+    /**
+     * Mints a new random UUID, registers it for {@code entityType} and returns it.
+     */
+    public String newId(String entityType, RandomService random) {
+        long msb = (random.nextLong() & ~0xF000L) | 0x4000L;
+        long lsb = (random.nextLong() & 0x3FFFFFFFFFFFFFFFL) | 0x8000000000000000L;
+        store(entityType).add(msb, lsb);
+        return new UUID(msb, lsb).toString();
+    }
+
+    /**
+     * Returns a uniformly sampled ID previously registered for {@code entityType}, or null if none.
+     */
+    public String sampleId(String entityType, RandomService random) {
+        IdStore store = stores.get(entityType);
+        return store == null ? null : store.sample(random);
+    }
+
+    /**
+     * Number of IDs currently retained for {@code entityType}.
+     */
+    public int size(String entityType) {
+        IdStore store = stores.get(entityType);
+        return store == null ? 0 : store.size();
+    }
+
+    private IdStore store(String entityType) {
+        return stores.computeIfAbsent(entityType, t -> new IdStore(capacity));
+    }
+
+    private static final class IdStore {
+
+        private final int capacity;
+        private final ByteBuffer[] chunks;
+        private long written;
+
+        IdStore(int capacity) {
+            this.capacity = capacity;
+            this.chunks = new ByteBuffer[(capacity + CHUNK_SIZE - 1) >>> CHUNK_BITS];
+        }
+
+        synchronized void add(long msb, long lsb) {
+            int slot = (int) (written % capacity);
+            ByteBuffer chunk = chunks[slot >>> CHUNK_BITS];
+            if (chunk == null) {
+                int entries = Math.min(CHUNK_SIZE, capacity - (slot & ~(CHUNK_SIZE - 1)));
+                chunk = ByteBuffer.allocateDirect(entries * ID_BYTES);
+                chunks[slot >>> CHUNK_BITS] = chunk;
+            }
+            int offset = (slot & (CHUNK_SIZE - 1)) * ID_BYTES;
+            chunk.putLong(offset, msb);
+            chunk.putLong(offset + 8, lsb);
+            written++;
+        }
+
+        synchronized String sample(RandomService random) {
+            int size = size();
+            if (size == 0) {
+                return null;
+            }
+            int slot = random.nextInt(size);
+            int offset = (slot & (CHUNK_SIZE - 1)) * ID_BYTES;
+            ByteBuffer chunk = chunks[slot >>> CHUNK_BITS];
+            return new UUID(chunk.getLong(offset), chunk.getLong(offset + 8)).toString();
+        }
+
+        synchronized int size() {
+            return (int) Math.min(written, capacity);
+        }
+    }
+}
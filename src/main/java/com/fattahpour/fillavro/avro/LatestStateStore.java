@@ -0,0 +1,144 @@
+package com.fattahpour.fillavro.avro;
+
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.SplittableRandom;
+
+/**
+ * Memory-bounded store of the latest encoded state per key. Values are kept as Avro binary
+ * so each entry costs little more than its serialized size. When the key or byte budget is
+ * exceeded, cold keys are evicted with sampled LRU: a few random entries are inspected and the
+ * least recently touched one is dropped. Lookups, random key sampling and eviction are O(1).
+ * Not thread-safe.
+ */
+class LatestStateStore {
+
+    private static final int EVICTION_SAMPLES = 5;
+    /**
+     * Rough per-entry overhead of the index map, key string and slot arrays.
+     */
+    private static final int ENTRY_OVERHEAD = 96;
+
+    private final int maxKeys;
+    private final long maxBytes;
+    private final SplittableRandom random;
+    private final Map<String, Integer> index = new HashMap<>();
+    private String[] keys = new String[16];
+    private byte[][] values = new byte[16][];
+    private long[] touched = new long[16];
+    private int size;
+    private long bytes;
+    private long clock;
+    private long evictions;
+
+    LatestStateStore(int maxKeys, long maxBytes, SplittableRandom random) {
+        if (maxKeys <= 0 || maxBytes <= 0) {
+            throw new IllegalArgumentException("State store limits must be > 0, got maxKeys=" + maxKeys + ", maxBytes=" + maxBytes);
+        }
+        this.maxKeys = maxKeys;
+        this.maxBytes = maxBytes;
+        this.random = random;
+    }
+
+    byte[] get(String key) {
+        Integer slot = index.get(key);
+        if (slot == null) {
+            return null;
+        }
+        touched[slot] = ++clock;
+        return values[slot];
+    }
+
+    void put(String key, byte[] value) {
+        Integer slot = index.get(key);
+        if (slot != null) {
+            bytes += value.length - values[slot].length;
+            values[slot] = value;
+            touched[slot] = ++clock;
+            evictUntilWithinBudget(slot);
+            return;
+        }
+        bytes += cost(key, value);
+        if (size == keys.length) {
+            int capacity = Math.min(Math.max(16, size * 2), Math.max(maxKeys, size + 1));
+            keys = Arrays.copyOf(keys, capacity);
+            values = Arrays.copyOf(values, capacity);
+            touched = Arrays.copyOf(touched, capacity);
+        }
+        keys[size] = key;
+        values[size] = value;
+        touched[size] = ++clock;
+        index.put(key, size);
+        size++;
+        evictUntilWithinBudget(size - 1);
+    }
+
+    boolean remove(String key) {
+        Integer slot = index.get(key);
+        if (slot == null) {
+            return false;
+        }
+        removeSlot(slot);
+        return true;
+    }
+
+    /**
+     * Returns a uniformly sampled key, or null when the store is empty.
+     */
+    String randomKey() {
+        return size == 0 ? null : keys[random.nextInt(size)];
+    }
+
+    int size() {
+        return size;
+    }
+
+    long bytes() {
+        return bytes;
+    }
+
+    long evictions() {
+        return evictions;
+    }
+
+    private void evictUntilWithinBudget(int protectedSlot) {
+        while (size > 1 && (size > maxKeys || bytes > maxBytes)) {
+            int victim = -1;
+            for (int i = 0; i < EVICTION_SAMPLES; i++) {
+                int candidate = random.nextInt(size);
+                if (candidate != protectedSlot && (victim < 0 || touched[candidate] < touched[victim])) {
+                    victim = candidate;
+                }
+            }
+            if (victim < 0) {
+                continue;
+            }
+            if (protectedSlot == size - 1) {
+                protectedSlot = victim;
+            }
+            removeSlot(victim);
+            evictions++;
+        }
+    }
+
+    private void removeSlot(int slot) {
+        String key = keys[slot];
+        bytes -= cost(key, values[slot]);
+        index.remove(key);
+        int last = size - 1;
+        if (slot != last) {
+            keys[slot] = keys[last];
+            values[slot] = values[last];
+            touched[slot] = touched[last];
+            index.put(keys[slot], slot);
+        }
+        keys[last] = null;
+        values[last] = null;
+        size--;
+    }
+
+    private static long cost(String key, byte[] value) {
+        return ENTRY_OVERHEAD + 2L * key.length() + value.length;
+    }
+}
@@ -0,0 +1,133 @@
+package com.fattahpour.fillavro.avro;
+
+import com.fattahpour.fillavro.config.AvroConfigProperties;
+import net.datafaker.service.RandomService;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.Locale;
+
+/**
+ * Samples target serialized sizes (in bytes) for generated records.
+ * Supports a fixed size, a uniform range and an empirical histogram of
+ * "size:weight" buckets.
+ */
+public class PayloadSizeDistribution {
+
+    private static final PayloadSizeDistribution NONE = new PayloadSizeDistribution(new int[0], new long[0], 0, 0);
+
+    private final int[] sizes;
+    private final long[] cumulativeWeights;
+    private final int min;
+    private final int max;
+
+    private PayloadSizeDistribution(int[] sizes, long[] cumulativeWeights, int min, int max) {
+        this.sizes = sizes;
+        this.cumulativeWeights = cumulativeWeights;
+        this.min = min;
+        this.max = max;
+    }
+
+    public static PayloadSizeDistribution none() {
+        return NONE;
+    }
+
+    public static PayloadSizeDistribution fixed(int bytes) {
+        requirePositive(bytes, "bytes");
+        return new PayloadSizeDistribution(new int[]{bytes}, new long[]{1}, bytes, bytes);
+    }
+
+    public static PayloadSizeDistribution uniform(int min, int max) {
+        requirePositive(min, "min");
+        if (max < min) {
+            throw new IllegalArgumentException("Uniform payload size requires max >= min, got " + min + ".." + max);
+        }
+        return new PayloadSizeDistribution(new int[0], new long[0], min, max);
+    }
+
+    public static PayloadSizeDistribution histogram(List<String> buckets) {
+        if (buckets == null || buckets.isEmpty()) {
+            throw new IllegalArgumentException("Histogram payload size requires at least one size:weight bucket");
+        }
+        int[] sizes = new int[buckets.size()];
+        long[] cumulative = new long[buckets.size()];
+        long total = 0;
+        for (int i = 0; i < buckets.size(); i++) {
+            String[] kv = buckets.get(i).trim().split(":", 2);
+            if (kv.length != 2) {
+                throw new IllegalArgumentException("Invalid histogram bucket '" + buckets.get(i) + "', expected size:weight");
+            }
+            sizes[i] = Integer.parseInt(kv[0].trim());
+            requirePositive(sizes[i], "histogram size");
+            long weight = Long.parseLong(kv[1].trim());
+            if (weight < 0) {
+                throw new IllegalArgumentException("Histogram weight must be >= 0, got " + weight);
+            }
+            total += weight;
+            cumulative[i] = total;
+        }
+        if (total == 0) {
+            throw new IllegalArgumentException("Histogram weights must not all be zero");
+        }
+        return new PayloadSizeDistribution(sizes, cumulative,
+                Arrays.stream(sizes).min().orElse(0), Arrays.stream(sizes).max().orElse(0));
+    }
+
+    public static PayloadSizeDistribution from(AvroConfigProperties.PayloadSize config) {
+        if (config == null || config.getDistribution() == null) {
+            return NONE;
+        }
+        return switch (config.getDistribution().trim().toLowerCase(Locale.ENGLISH)) {
+            case "", "none" -> NONE;
+            case "fixed" -> fixed(config.getBytes());
+            case "uniform" -> uniform(config.getMin(), config.getMax());
+            case "histogram" -> histogram(config.getHistogram());
+            default -> throw new IllegalArgumentException("Unknown payload size distribution: " + config.getDistribution());
+        };
+    }
+
+    public boolean isEnabled() {
+        return max > 0;
+    }
+
+    /**
+     * Returns the next target size in bytes, or -1 when the distribution is disabled.
+     */
+    public int sample(RandomService random) {
+        if (!isEnabled()) {
+            return -1;
+        }
+        if (cumulativeWeights.length == 0) {
+            return min == max ? min : random.nextInt(min, max);
+        }
+        if (sizes.length == 1) {
+            return sizes[0];
+        }
+        long pick = random.nextLong(cumulativeWeights[cumulativeWeights.length - 1]);
+        return sizes[firstAbove(cumulativeWeights, pick)];
+    }
+
+    /**
+     * Index of the first cumulative weight greater than {@code pick}; zero-weight buckets repeat
+     * the previous cumulative value and are therefore never selected.
+     */
+    static int firstAbove(long[] cumulativeWeights, long pick) {
+        int low = 0;
+        int high = cumulativeWeights.length - 1;
+        while (low < high) {
+            int mid = (low + high) >>> 1;
+            if (cumulativeWeights[mid] > pick) {
+                high = mid;
+            } else {
+                low = mid + 1;
+            }
+        }
+        return low;
+    }
+
+    private static void requirePositive(int value, String name) {
+        if (value <= 0) {
+            throw new IllegalArgumentException("Payload " + name + " must be > 0, got " + value);
+        }
+    }
+}
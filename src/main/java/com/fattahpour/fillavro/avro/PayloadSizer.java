@@ -0,0 +1,314 @@
+package com.fattahpour.fillavro.avro;
+
+import net.datafaker.service.RandomService;
+import org.apache.avro.Schema;
+import org.apache.avro.generic.GenericRecord;
+import org.apache.avro.util.Utf8;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Consumer;
+import java.util.function.Predicate;
+
+/**
+ * Pads or trims the string, bytes and collection values of a generated record so
+ * that its Avro binary size matches a target. Sizes are computed with
+ * {@link AvroSizeEstimator}; the record is never encoded. Every adjustment accounts for
+ * the varint length prefix of the resized value, whose size changes at 64, 8192, ... bytes;
+ * a target that cannot be hit exactly is logged and the closest size reached is returned.
+ */
+class PayloadSizer {
+
+    private static final Logger log = LoggerFactory.getLogger(PayloadSizer.class);
+
+    private static final int MAX_PASSES = 8;
+
+    private static final String FILLER = ("Lorem ipsum dolor sit amet consectetur adipiscing elit sed do eiusmod tempor "
+            + "incididunt ut labore et dolore magna aliqua Ut enim ad minim veniam quis nostrud exercitation ullamco "
+            + "laboris nisi ut aliquip ex ea commodo consequat Duis aute irure dolor in reprehenderit in voluptate "
+            + "velit esse cillum dolore eu fugiat nulla pariatur ").repeat(8);
+
+    private final RandomService random;
+    private final Predicate<String> resizable;
+
+    private boolean missReported;
+
+    /**
+     * @param resizable decides, by dot-path, which string/bytes fields may be resized
+     */
+    PayloadSizer(RandomService random, Predicate<String> resizable) {
+        this.random = random;
+        this.resizable = resizable;
+    }
+
+    /**
+     * Adjusts {@code record} in place towards {@code targetBytes} and returns the resulting size.
+     * The first target that is missed is logged at WARN, later ones at DEBUG.
+     */
+    int fit(GenericRecord record, int targetBytes) {
+        int size = fit(record, targetBytes, path -> true);
+        if (size != targetBytes) {
+            if (!missReported) {
+                missReported = true;
+                log.warn("Payload size target of {} bytes missed for {} (reached {} bytes); "
+                        + "further misses are logged at DEBUG", targetBytes, record.getSchema().getFullName(), size);
+            } else {
+                log.debug("Payload size target of {} bytes missed for {} (reached {} bytes)",
+                        targetBytes, record.getSchema().getFullName(), size);
+            }
+        }
+        return size;
+    }
+
+    /**
+     * Like {@link #fit(GenericRecord, int)}, but only resizes values at or below the dot-paths
+     * accepted by {@code within}, leaving the rest of the record untouched. Misses are expected
+     * (the accepted values may not be resizable at all) and are not logged.
+     */
+    int fit(GenericRecord record, int targetBytes, Predicate<String> within) {
+        Schema schema = record.getSchema();
+        int size = AvroSizeEstimator.sizeOf(schema, record);
+        for (int pass = 0; pass < MAX_PASSES && size != targetBytes; pass++) {
+            List<Slot> slots = new ArrayList<>();
+            List<Object> collections = new ArrayList<>();
+            collect(schema, record, "", within, slots, collections);
+            int delta = targetBytes - size;
+            if (delta > 0) {
+                if (slots.isEmpty()) {
+                    break;
+                }
+                grow(slots, delta);
+            } else if (!shrink(slots, -delta) && !dropElement(collections)) {
+                break;
+            }
+            int resized = AvroSizeEstimator.sizeOf(schema, record);
+            if (resized == size) {
+                // the remaining difference falls in a length-prefix gap of every slot
+                break;
+            }
+            size = resized;
+        }
+        return size;
+    }
+
+    /**
+     * Spreads {@code delta} encoded bytes over the slots. A slot whose share would end in a
+     * length-prefix gap overshoots by a byte, which the following slots give back; only the
+     * last slot rounds down so that the pass never overshoots overall.
+     */
+    private void grow(List<Slot> slots, int delta) {
+        int share = delta / slots.size();
+        int remainder = delta % slots.size();
+        int carry = 0;
+        for (int i = 0; i < slots.size(); i++) {
+            Slot slot = slots.get(i);
+            int extra = share + (i < remainder ? 1 : 0) + carry;
+            int encoded = slot.encodedSize();
+            int wanted = encoded + extra;
+            slot.resizeTo(i == slots.size() - 1 ? lengthAtMost(wanted) : lengthAtLeast(wanted));
+            carry = extra - (slot.encodedSize() - encoded);
+        }
+    }
+
+    /**
+     * Cuts up to {@code excess} encoded bytes, largest slots first. A cut that ends in a
+     * length-prefix gap takes a byte more unless the slot is the last non-empty one, which
+     * rounds up so that the pass never undershoots when nothing else could absorb the byte.
+     * Returns false only when every slot is already empty.
+     */
+    private boolean shrink(List<Slot> slots, int excess) {
+        slots.sort(Comparator.comparingInt(Slot::length).reversed());
+        int nonEmpty = (int) slots.stream().filter(slot -> slot.length() > 0).count();
+        for (int i = 0; i < nonEmpty && excess > 0; i++) {
+            Slot slot = slots.get(i);
+            int encoded = slot.encodedSize();
+            int wanted = encoded - Math.min(excess, encoded - 1);
+            slot.resizeTo(i == nonEmpty - 1 ? lengthAtLeast(wanted) : lengthAtMost(wanted));
+            excess -= encoded - slot.encodedSize();
+        }
+        return nonEmpty > 0;
+    }
+
+    /**
+     * Longest value length whose encoding (length prefix plus bytes) fits in {@code encoded} bytes.
+     */
+    static int lengthAtMost(int encoded) {
+        int length = Math.max(0, encoded - 1);
+        while (length > 0 && length + AvroSizeEstimator.longSize(length) > encoded) {
+            length--;
+        }
+        return length;
+    }
+
+    /**
+     * Shortest value length whose encoding takes at least {@code encoded} bytes.
+     */
+    static int lengthAtLeast(int encoded) {
+        int length = lengthAtMost(encoded);
+        return length + AvroSizeEstimator.longSize(length) < encoded ? length + 1 : length;
+    }
+
+    private boolean dropElement(List<Object> collections) {
+        for (Object collection : collections) {
+            if (collection instanceof List<?> list && !list.isEmpty()) {
+                list.remove(list.size() - 1);
+                return true;
+            }
+            if (collection instanceof Map<?, ?> map && !map.isEmpty()) {
+                Iterator<?> it = map.keySet().iterator();
+                it.next();
+                it.remove();
+                return true;
+            }
+        }
+        return false;
+    }
+
+    @SuppressWarnings("unchecked")
+    private void collect(Schema schema, Object datum, String path, Predicate<String> within,
+                         List<Slot> slots, List<Object> collections) {
+        if (datum == null) {
+            return;
+        }
+        switch (schema.getType()) {
+            case RECORD -> {
+                GenericRecord record = (GenericRecord) datum;
+                for (Schema.Field field : schema.getFields()) {
+                    String fieldPath = path.isEmpty() ? field.name() : path + "." + field.name();
+                    Object value = record.get(field.pos());
+                    if (isResizableValue(value) && resizable.test(fieldPath) && within.test(fieldPath)) {
+                        slots.add(new Slot(value, v -> record.put(field.pos(), v)));
+                    } else {
+                        collect(field.schema(), value, fieldPath, within, slots, collections);
+                    }
+                }
+            }
+            case ARRAY -> {
+                List<Object> list = (List<Object>) datum;
+                if (within.test(path)) {
+                    collections.add(list);
+                }
+                for (int i = 0; i < list.size(); i++) {
+                    Object value = list.get(i);
+                    int index = i;
+                    if (isResizableValue(value) && resizable.test(path) && within.test(path)) {
+                        slots.add(new Slot(value, v -> list.set(index, v)));
+                    } else {
+                        collect(schema.getElementType(), value, path, within, slots, collections);
+                    }
+                }
+            }
+            case MAP -> {
+                Map<Object, Object> map = (Map<Object, Object>) datum;
+                if (within.test(path)) {
+                    collections.add(map);
+                }
+                for (Map.Entry<Object, Object> e : map.entrySet()) {
+                    Object value = e.getValue();
+                    if (isResizableValue(value) && resizable.test(path) && within.test(path)) {
+                        slots.add(new Slot(value, e::setValue));
+                    } else {
+                        collect(schema.getValueType(), value, path, within, slots, collections);
+                    }
+                }
+            }
+            case UNION -> {
+                for (Schema branch : schema.getTypes()) {
+                    if (branch.getType() == Schema.Type.RECORD && datum instanceof GenericRecord gr
+                            && gr.getSchema().equals(branch)) {
+                        collect(branch, datum, path, within, slots, collections);
+                    } else if (branch.getType() == Schema.Type.ARRAY && datum instanceof List
+                            || branch.getType() == Schema.Type.MAP && datum instanceof Map) {
+                        collect(branch, datum, path, within, slots, collections);
+                    }
+                }
+            }
+            default -> {
+                // primitives, enums and fixed values have a schema-determined size
+            }
+        }
+    }
+
+    private static boolean isResizableValue(Object value) {
+        return value instanceof CharSequence || value instanceof ByteBuffer;
+    }
+
+    private String filler(int length) {
+        StringBuilder sb = new StringBuilder(length);
+        int offset = random.nextInt(FILLER.length());
+        while (sb.length() < length) {
+            int n = Math.min(length - sb.length(), FILLER.length() - offset);
+            sb.append(FILLER, offset, offset + n);
+            offset = 0;
+        }
+        return sb.toString();
+    }
+
+    private final class Slot {
+
+        private Object value;
+        private final Consumer<Object> setter;
+
+        Slot(Object value, Consumer<Object> setter) {
+            this.value = value;
+            this.setter = setter;
+        }
+
+        int length() {
+            if (value instanceof ByteBuffer buffer) {
+                return buffer.remaining();
+            }
+            return value instanceof Utf8 utf8 ? utf8.getByteLength() : AvroSizeEstimator.utf8Length(value.toString());
+        }
+
+        int encodedSize() {
+            int length = length();
+            return AvroSizeEstimator.longSize(length) + length;
+        }
+
+        void resizeTo(int newLength) {
+            if (newLength != length()) {
+                resize(newLength);
+            }
+        }
+
+        void resize(int newLength) {
+            if (value instanceof ByteBuffer buffer) {
+                byte[] bytes = random.nextRandomBytes(newLength);
+                ByteBuffer source = buffer.duplicate();
+                source.get(bytes, 0, Math.min(newLength, source.remaining()));
+                value = ByteBuffer.wrap(bytes);
+            } else {
+                String resized = resizeString(value.toString(), newLength);
+                // never mutate the existing Utf8 in place: it may be shared
+                value = value instanceof Utf8 ? new Utf8(resized) : resized;
+            }
+            setter.accept(value);
+        }
+
+        private String resizeString(String s, int newLength) {
+            int length = AvroSizeEstimator.utf8Length(s);
+            if (newLength >= length) {
+                return s + filler(newLength - length);
+            }
+            if (length == s.length()) {
+                return s.substring(0, newLength);
+            }
+            int end = s.length();
+            while (end > 0 && AvroSizeEstimator.utf8Length(s.substring(0, end)) > newLength) {
+                end--;
+            }
+            if (end > 0 && Character.isHighSurrogate(s.charAt(end - 1))) {
+                end--;
+            }
+            String trimmed = s.substring(0, end);
+            return trimmed + filler(newLength - AvroSizeEstimator.utf8Length(trimmed));
+        }
+    }
+}
@@ -0,0 +1,142 @@
+package com.fattahpour.fillavro.avro;
+
+/**
+ * Parameters for {@link SyntheticSchemaGenerator}. Densities are fractions between 0 and 1
+ * of the generated fields.
+ */
+public class SchemaShape {
+
+    /**
+     * Total number of fields across the root record and all nested records.
+     */
+    private int fieldCount = 10;
+
+    /**
+     * Number of record levels; 1 means a flat record.
+     */
+    private int depth = 1;
+
+    /**
+     * Share of fields wrapped in a nullable ["null", T] union.
+     */
+    private double unionDensity = 0.2;
+
+    /**
+     * Share of fields that are arrays or maps.
+     */
+    private double collectionDensity = 0.1;
+
+    /**
+     * Share of collection fields that are maps rather than arrays.
+     */
+    private double mapArrayRatio = 0.5;
+
+    /**
+     * Share of fields that are enums.
+     */
+    private double enumDensity = 0.05;
+
+    /**
+     * Number of symbols per generated enum.
+     */
+    private int enumCardinality = 4;
+
+    /**
+     * Whether primitive fields may carry logical types (uuid, date, timestamp-millis, decimal).
+     */
+    private boolean logicalTypes = true;
+
+    private long seed = 42;
+
+    public int getFieldCount() {
+        return fieldCount;
+    }
+
+    public SchemaShape setFieldCount(int fieldCount) {
+        this.fieldCount = fieldCount;
+        return this;
+    }
+
+    public int getDepth() {
+        return depth;
+    }
+
+    public SchemaShape setDepth(int depth) {
+        this.depth = depth;
+        return this;
+    }
+
+    public double getUnionDensity() {
+        return unionDensity;
+    }
+
+    public SchemaShape setUnionDensity(double unionDensity) {
+        this.unionDensity = unionDensity;
+        return this;
+    }
+
+    public double getCollectionDensity() {
+        return collectionDensity;
+    }
+
+    public SchemaShape setCollectionDensity(double collectionDensity) {
+        this.collectionDensity = collectionDensity;
+        return this;
+    }
+
+    public double getMapArrayRatio() {
+        return mapArrayRatio;
+    }
+
+    public SchemaShape setMapArrayRatio(double mapArrayRatio) {
+        this.mapArrayRatio = mapArrayRatio;
+        return this;
+    }
+
+    public double getEnumDensity() {
+        return enumDensity;
+    }
+
+    public SchemaShape setEnumDensity(double enumDensity) {
+        this.enumDensity = enumDensity;
+        return this;
+    }
+
+    public int getEnumCardinality() {
+        return enumCardinality;
+    }
+
+    public SchemaShape setEnumCardinality(int enumCardinality) {
+        this.enumCardinality = enumCardinality;
+        return this;
+    }
+
+    public boolean isLogicalTypes() {
+        return logicalTypes;
+    }
+
+    public SchemaShape setLogicalTypes(boolean logicalTypes) {
+        this.logicalTypes = logicalTypes;
+        return this;
+    }
+
+    public long getSeed() {
+        return seed;
+    }
+
+    public SchemaShape setSeed(long seed) {
+        this.seed = seed;
+        return this;
+    }
+
+    /**
+     * Lists every parameter, so distinct shapes never share a name (corpus file names are
+     * derived from it).
+     */
+    @Override
+    public String toString() {
+        return "fields-" + fieldCount + "_depth-" + depth + "_union-" + unionDensity
+                + "_collection-" + collectionDensity + "_map-" + mapArrayRatio + "_enum-" + enumDensity
+                + "_symbols-" + enumCardinality + "_logical-" + logicalTypes + "_seed-" + seed;
+    }
+}
@@ -0,0 +1,72 @@
+package com.fattahpour.fillavro.avro;
+
+import org.apache.avro.Schema;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.SplittableRandom;
+
+/**
+ * Writer schema versions produced side by side, each with a relative weight, configured as
+ * "path:weight" entries (a missing weight counts as 1). Simulates a rollout in which consumers
+ * see several versions of a schema at once.
+ */
+public class SchemaVersions {
+
+    private final List<Schema> schemas;
+    private final long[] cumulativeWeights;
+
+    private SchemaVersions(List<Schema> schemas, long[] cumulativeWeights) {
+        this.schemas = schemas;
+        this.cumulativeWeights = cumulativeWeights;
+    }
+
+    public static SchemaVersions single(Schema schema) {
+        return new SchemaVersions(List.of(schema), new long[]{1});
+    }
+
+    public static SchemaVersions load(AvroSchemaLoader loader, List<String> entries) {
+        if (entries == null || entries.isEmpty()) {
+            throw new IllegalArgumentException("Schema versions require at least one path:weight entry");
+        }
+        List<Schema> schemas = new ArrayList<>();
+        long[] cumulative = new long[entries.size()];
+        long total = 0;
+        for (int i = 0; i < entries.size(); i++) {
+            String entry = entries.get(i).trim();
+            int colon = entry.lastIndexOf(':');
+            String path = colon < 0 ? entry : entry.substring(0, colon).trim();
+            long weight = colon < 0 ? 1 : Long.parseLong(entry.substring(colon + 1).trim());
+            if (weight < 0) {
+                throw new IllegalArgumentException("Schema version weight must be >= 0, got " + weight + " for " + path);
+            }
+            schemas.add(loader.load(path));
+            total += weight;
+            cumulative[i] = total;
+        }
+        if (total == 0) {
+            throw new IllegalArgumentException("Schema version weights must not all be zero");
+        }
+        return new SchemaVersions(List.copyOf(schemas), cumulative);
+    }
+
+    public List<Schema> schemas() {
+        return schemas;
+    }
+
+    public int size() {
+        return schemas.size();
+    }
+
+    /**
+     * Returns the index of a version sampled by weight.
+     */
+    public int sampleIndex(SplittableRandom random) {
+        if (cumulativeWeights.length == 1) {
+            return 0;
+        }
+        long pick = random.nextLong(cumulativeWeights[cumulativeWeights.length - 1]);
+        // a zero-weight version is never picked, wherever it sits in the list
+        return PayloadSizeDistribution.firstAbove(cumulativeWeights, pick);
+    }
+}
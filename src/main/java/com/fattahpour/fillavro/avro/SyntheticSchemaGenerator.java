@@ -0,0 +1,176 @@
+package com.fattahpour.fillavro.avro;
+
+import org.apache.avro.JsonProperties;
+import org.apache.avro.LogicalTypes;
+import org.apache.avro.Schema;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+
+/**
+ * Generates Avro record schemas of a given {@link SchemaShape}. The same shape and seed always
+ * produce the same schema. Field names reuse the semantic hints understood by
+ * {@link AvroRecordGenerator} (email, city, createdAt, ...) so generated data stays realistic.
+ *
+ * <p>Can also be run standalone to write a corpus of schemas for every combination of the
+ * given field counts, depths and seeds, e.g.
+ * {@code --fields=5,50,500,2000 --depth=1,5,10 --seeds=1,2 --out=target/schemas}.
+ */
+public class SyntheticSchemaGenerator {
+
+    private static final String NAMESPACE = "synthetic";
+
+    private static final String[] STRING_NAMES = {
+            "Note", "Email", "FirstName", "LastName", "City", "Street", "Country", "Phone", "CustomerId", "Url"};
+    private static final String[] INT_NAMES = {"Quantity", "Age", "Score", "Rank"};
+    private static final String[] LONG_NAMES = {"CreatedAt", "UpdatedAt", "Count", "Balance"};
+    private static final String[] DOUBLE_NAMES = {"Amount", "Price", "Ratio", "Weight"};
+
+    public Schema generate(SchemaShape shape) {
+        int depth = Math.max(1, shape.getDepth());
+        int ownFields = shape.getFieldCount() - (depth - 1);
+        if (ownFields < depth) {
+            throw new IllegalArgumentException("A schema of depth " + depth + " needs at least "
+                    + (2 * depth - 1) + " fields, got " + shape.getFieldCount());
+        }
+        Random random = new Random(shape.getSeed());
+        int[] perLevel = new int[depth];
+        for (int i = 0; i < ownFields; i++) {
+            perLevel[i % depth]++;
+        }
+
+        // assign field indices top-down so the root gets the lowest numbers
+        int[] firstIndex = new int[depth];
+        for (int level = 1; level < depth; level++) {
+            firstIndex[level] = firstIndex[level - 1] + perLevel[level - 1];
+        }
+        List<List<Schema.Field>> levels = new ArrayList<>();
+        for (int level = 0; level < depth; level++) {
+            List<Schema.Field> fields = new ArrayList<>();
+            for (int i = 0; i < perLevel[level]; i++) {
+                fields.add(field(firstIndex[level] + i, shape, random));
+            }
+            levels.add(fields);
+        }
+
+        Schema child = null;
+        for (int level = depth - 1; level >= 0; level--) {
+            List<Schema.Field> fields = levels.get(level);
+            if (child != null) {
+                fields.add(new Schema.Field("child" + (level + 1), child));
+            }
+            String name = level == 0 ? "SyntheticRecord" : "Level" + level;
+            child = Schema.createRecord(name, "Synthetic schema " + shape, NAMESPACE, false, fields);
+        }
+        return child;
+    }
+
+    private Schema.Field field(int index, SchemaShape shape, Random random) {
+        double pick = random.nextDouble();
+        Schema type;
+        String name;
+        if (pick < shape.getCollectionDensity()) {
+            Schema element = primitive(random, shape.isLogicalTypes() && random.nextBoolean());
+            if (random.nextDouble() < shape.getMapArrayRatio()) {
+                type = Schema.createMap(element);
+                name = "Attributes";
+            } else {
+                type = Schema.createArray(element);
+                name = "Tags";
+            }
+        } else if (pick < shape.getCollectionDensity() + shape.getEnumDensity()) {
+            List<String> symbols = new ArrayList<>();
+            for (int s = 0; s < Math.max(1, shape.getEnumCardinality()); s++) {
+                symbols.add("S" + s);
+            }
+            type = Schema.createEnum("Enum" + index, null, NAMESPACE, symbols);
+            name = "Status";
+        } else {
+            type = primitive(random, shape.isLogicalTypes() && random.nextDouble() < 0.3);
+            name = nameFor(type, random);
+        }
+        String fieldName = "f" + index + name;
+        if (random.nextDouble() < shape.getUnionDensity()) {
+            return new Schema.Field(fieldName, Schema.createUnion(Schema.create(Schema.Type.NULL), type),
+                    null, JsonProperties.NULL_VALUE);
+        }
+        return new Schema.Field(fieldName, type);
+    }
+
+    private Schema primitive(Random random, boolean logical) {
+        return switch (random.nextInt(6)) {
+            case 0 -> logical
+                    ? LogicalTypes.uuid().addToSchema(Schema.create(Schema.Type.STRING))
+                    : Schema.create(Schema.Type.STRING);
+            case 1 -> logical
+                    ? LogicalTypes.date().addToSchema(Schema.create(Schema.Type.INT))
+                    : Schema.create(Schema.Type.INT);
+            case 2 -> logical
+                    ? LogicalTypes.timestampMillis().addToSchema(Schema.create(Schema.Type.LONG))
+                    : Schema.create(Schema.Type.LONG);
+            case 3 -> Schema.create(Schema.Type.DOUBLE);
+            case 4 -> Schema.create(Schema.Type.BOOLEAN);
+            default -> logical
+                    ? LogicalTypes.decimal(12, 2).addToSchema(Schema.create(Schema.Type.BYTES))
+                    : Schema.create(Schema.Type.STRING);
+        };
+    }
+
+    private String nameFor(Schema type, Random random) {
+        if (type.getLogicalType() != null) {
+            return switch (type.getLogicalType().getName()) {
+                case "uuid" -> "EventId";
+                case "date" -> "BirthDate";
+                case "timestamp-millis" -> "Timestamp";
+                default -> "Amount";
+            };
+        }
+        return switch (type.getType()) {
+            case STRING -> STRING_NAMES[random.nextInt(STRING_NAMES.length)];
+            case INT -> INT_NAMES[random.nextInt(INT_NAMES.length)];
+            case LONG -> LONG_NAMES[random.nextInt(LONG_NAMES.length)];
+            case DOUBLE -> DOUBLE_NAMES[random.nextInt(DOUBLE_NAMES.length)];
+            default -> "Flag";
+        };
+    }
+
+    public static void main(String[] args) throws IOException {
+        Map<String, String> options = new HashMap<>();
+        for (String arg : args) {
+            String[] kv = arg.replaceFirst("^--", "").split("=", 2);
+            options.put(kv[0], kv.length == 2 ? kv[1] : "true");
+        }
+        Path out = Path.of(options.getOrDefault("out", "target/schemas"));
+        Files.createDirectories(out);
+        SyntheticSchemaGenerator generator = new SyntheticSchemaGenerator();
+        int written = 0;
+        for (String fields : options.getOrDefault("fields", "5,50,500,2000").split(",")) {
+            for (String depth : options.getOrDefault("depth", "1,5,10").split(",")) {
+                for (String seed : options.getOrDefault("seeds", "42").split(",")) {
+                    SchemaShape shape = new SchemaShape()
+                            .setFieldCount(Integer.parseInt(fields.trim()))
+                            .setDepth(Integer.parseInt(depth.trim()))
+                            .setSeed(Long.parseLong(seed.trim()))
+                            .setUnionDensity(Double.parseDouble(options.getOrDefault("union-density", "0.2")))
+                            .setCollectionDensity(Double.parseDouble(options.getOrDefault("collection-density", "0.1")))
+                            .setMapArrayRatio(Double.parseDouble(options.getOrDefault("map-array-ratio", "0.5")))
+                            .setEnumDensity(Double.parseDouble(options.getOrDefault("enum-density", "0.05")))
+                            .setEnumCardinality(Integer.parseInt(options.getOrDefault("enum-cardinality", "4")))
+                            .setLogicalTypes(Boolean.parseBoolean(options.getOrDefault("logical-types", "true")));
+                    if (shape.getFieldCount() < 2 * shape.getDepth() - 1) {
+                        continue;
+                    }
+                    Files.writeString(out.resolve(shape + ".avsc"), generator.generate(shape).toString(true));
+                    written++;
+                }
+            }
+        }
+        System.out.println("Wrote " + written + " schemas to " + out.toAbsolutePath());
+    }
+}
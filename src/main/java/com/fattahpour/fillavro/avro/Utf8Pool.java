@@ -0,0 +1,61 @@
+package com.fattahpour.fillavro.avro;
+
+import net.datafaker.service.RandomService;
+import org.apache.avro.util.Utf8;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Supplier;
+
+/**
+ * Pools of pre-encoded string values, one pool per kind of generated text. The first
+ * {@code size} values requested for a kind are generated and UTF-8 encoded once; later requests
+ * return one of them at random. Values are Avro {@link Utf8}s, whose bytes the binary encoder
+ * copies as-is instead of encoding a {@code String} per field. Pooled values are shared between
+ * records and must not be mutated.
+ */
+final class Utf8Pool {
+
+    private final int size;
+    private final Map<String, Pool> pools = new ConcurrentHashMap<>();
+
+    Utf8Pool(int size) {
+        if (size < 0) {
+            throw new IllegalArgumentException("String pool size must be >= 0, got " + size);
+        }
+        this.size = size;
+    }
+
+    boolean isEnabled() {
+        return size > 0;
+    }
+
+    Utf8 get(String kind, RandomService random, Supplier<String> generator) {
+        return pools.computeIfAbsent(kind, k -> new Pool(size)).get(random, generator);
+    }
+
+    private static final class Pool {
+
+        private final Utf8[] values;
+        private volatile int filled;
+
+        Pool(int size) {
+            this.values = new Utf8[size];
+        }
+
+        Utf8 get(RandomService random, Supplier<String> generator) {
+            if (filled == values.length) {
+                return values[random.nextInt(values.length)];
+            }
+            synchronized (this) {
+                if (filled < values.length) {
+                    Utf8 value = new Utf8(generator.get());
+                    values[filled] = value;
+                    filled++;
+                    return value;
+                }
+            }
+            return values[random.nextInt(values.length)];
+        }
+    }
+}
@@ -3,6 +3,7 @@ package com.fattahpour.fillavro.config;
 import org.springframework.boot.context.properties.ConfigurationProperties;
 import org.springframework.stereotype.Component;
 
+import java.util.ArrayList;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
@@ -19,6 +20,29 @@ public class AvroConfigProperties {
      */
     private Map<String, List<String>> fields = new HashMap<>();
 
+    /**
+     * Base seed for all random generation. When set, generated data and keys are reproducible
+     * (per {@code app.instance.index}); when empty every run differs.
+     */
+    private Long seed;
+
+    /**
+     * Number of distinct pre-encoded values kept per kind of generated text (email, city, ...).
+     * 0 generates every string value afresh.
+     */
+    private int stringPoolSize = 0;
+
+    /**
+     * Target serialized-size distribution for generated records. Disabled unless a
+     * distribution is configured.
+     */
+    private PayloadSize payloadSize = new PayloadSize();
+
+    /**
+     * Shared entity IDs: fields that mint IDs for an entity type and fields that reference them.
+     */
+    private Entities entities = new Entities();
+
     public Map<String, List<String>> getFields() {
         return fields;
     }
@@ -26,4 +50,147 @@ public class AvroConfigProperties {
     public void setFields(Map<String, List<String>> fields) {
         this.fields = fields;
     }
+
+    public Long getSeed() {
+        return seed;
+    }
+
+    public void setSeed(Long seed) {
+        this.seed = seed;
+    }
+
+    public int getStringPoolSize() {
+        return stringPoolSize;
+    }
+
+    public void setStringPoolSize(int stringPoolSize) {
+        this.stringPoolSize = stringPoolSize;
+    }
+
+    public PayloadSize getPayloadSize() {
+        return payloadSize;
+    }
+
+    public void setPayloadSize(PayloadSize payloadSize) {
+        this.payloadSize = payloadSize;
+    }
+
+    public Entities getEntities() {
+        return entities;
+    }
+
+    public void setEntities(Entities entities) {
+        this.entities = entities;
+    }
+
+    public static class PayloadSize {
+
+        /**
+         * One of "none", "fixed", "uniform" or "histogram".
+         */
+        private String distribution = "none";
+
+        /**
+         * Target size in bytes for the "fixed" distribution.
+         */
+        private int bytes;
+
+        /**
+         * Inclusive bounds in bytes for the "uniform" distribution.
+         */
+        private int min;
+
+        private int max;
+
+        /**
+         * Buckets for the "histogram" distribution as "size:weight" entries,
+         * e.g. "1024:70,10240:25,102400:5".
+         */
+        private List<String> histogram = new ArrayList<>();
+
+        public String getDistribution() {
+            return distribution;
+        }
+
+        public void setDistribution(String distribution) {
+            this.distribution = distribution;
+        }
+
+        public int getBytes() {
+            return bytes;
+        }
+
+        public void setBytes(int bytes) {
+            this.bytes = bytes;
+        }
+
+        public int getMin() {
+            return min;
+        }
+
+        public void setMin(int min) {
+            this.min = min;
+        }
+
+        public int getMax() {
+            return max;
+        }
+
+        public void setMax(int max) {
+            this.max = max;
+        }
+
+        public List<String> getHistogram() {
+            return histogram;
+        }
+
+        public void setHistogram(List<String> histogram) {
+            this.histogram = histogram;
+        }
+    }
+
+    public static class Entities {
+
+        /**
+         * Maximum number of IDs kept per entity type; the oldest are overwritten once full.
+         */
+        private int capacity = 1_000_000;
+
+        /**
+         * Field (dot-path or short name) to entity type. Generated values are new IDs registered for the type,
+         * e.g. "customerId=customer".
+         */
+        private Map<String, String> ids = new HashMap<>();
+
+        /**
+         * Field (dot-path or short name) to entity type. Values are sampled from IDs already registered
+         * for the type, e.g. "buyer.customerId=customer" for the customerId of a nested buyer record.
+         * Dot-paths start below the root record and never include its name.
+         */
+        private Map<String, String> refs = new HashMap<>();
+
+        public int getCapacity() {
+            return capacity;
+        }
+
+        public void setCapacity(int capacity) {
+            this.capacity = capacity;
+        }
+
+        public Map<String, String> getIds() {
+            return ids;
+        }
+
+        public void setIds(Map<String, String> ids) {
+            this.ids = ids;
+        }
+
+        public Map<String, String> getRefs() {
+            return refs;
+        }
+
+        public void setRefs(Map<String, String> refs) {
+            this.refs = refs;
+        }
+    }
 }
@@ -0,0 +1,86 @@
+package com.fattahpour.fillavro.config;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+import java.util.UUID;
+
+/**
+ * Position of this process among {@code count} independent generator instances. Each instance
+ * owns every {@code count}-th key sequence number starting at {@code index}, derives its own
+ * random seed and takes an even share of the record count and send rate, so N instances
+ * together produce one non-overlapping workload without coordinating.
+ */
+@Component
+@ConfigurationProperties(prefix = "app.instance")
+public class InstanceProperties {
+
+    private int index = 0;
+
+    private int count = 1;
+
+    public int getIndex() {
+        return index;
+    }
+
+    public void setIndex(int index) {
+        this.index = index;
+    }
+
+    public int getCount() {
+        return count;
+    }
+
+    public void setCount(int count) {
+        this.count = count;
+    }
+
+    public void validate() {
+        if (count <= 0 || index < 0 || index >= count) {
+            throw new IllegalArgumentException("app.instance.index must be in [0, count), got index=" + index + ", count=" + count);
+        }
+    }
+
+    /**
+     * This instance's share of {@code total}; the remainder goes to the lowest indices.
+     */
+    public long share(long total) {
+        return total / count + (index < total % count ? 1 : 0);
+    }
+
+    public double share(double rate) {
+        return rate / count;
+    }
+
+    /**
+     * Maps the n-th local sequence number to this instance's slice of the global sequence.
+     */
+    public long globalSequence(long localSequence) {
+        return localSequence * count + index;
+    }
+
+    /**
+     * Seed for this instance's random stream, derived from the shared base seed.
+     */
+    public long seed(long baseSeed) {
+        return mix(baseSeed + 0x9E3779B97F4A7C15L * (index + 1));
+    }
+
+    /**
+     * A UUID-formatted key for the n-th local sequence number. Keys are unique across instances
+     * because the global sequence is encoded through a bijective mix; {@code namespace} keeps
+     * keys of different runs (seeds) apart.
+     */
+    public String key(long namespace, long localSequence) {
+        return new UUID(namespace, mix(globalSequence(localSequence))).toString();
+    }
+
+    /**
+     * MurmurHash3 64-bit finalizer; a bijection, so distinct inputs stay distinct.
+     */
+    static long mix(long z) {
+        z = (z ^ (z >>> 33)) * 0xFF51AFD7ED558CCDL;
+        z = (z ^ (z >>> 33)) * 0xC4CEB9FE1A85EC53L;
+        return z ^ (z >>> 33);
+    }
+}
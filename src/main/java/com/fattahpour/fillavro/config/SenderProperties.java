@@ -0,0 +1,306 @@
+package com.fattahpour.fillavro.config;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.List;
+
+@Component
+@ConfigurationProperties(prefix = "app.sender")
+public class SenderProperties {
+
+    public enum Mode {
+        /**
+         * Generate, convert and serialize every record individually.
+         */
+        GENERATE,
+        /**
+         * Encode a few template records once and send in-place mutated copies of their bytes.
+         */
+        TEMPLATE,
+        /**
+         * Emit a change-data-capture mix of inserts, partial updates and deletes (tombstones) per key.
+         */
+        CDC
+    }
+
+    public enum Sink {
+        /**
+         * Send records to Kafka.
+         */
+        KAFKA,
+        /**
+         * Serialize records and discard the bytes, reporting generator throughput and CPU cost.
+         */
+        NULL
+    }
+
+    public enum Delivery {
+        /**
+         * Producer settings exactly as configured under {@code spring.kafka.producer}.
+         */
+        PLAIN,
+        /**
+         * Idempotent producer ({@code enable.idempotence=true}, {@code acks=all}).
+         */
+        IDEMPOTENT,
+        /**
+         * Idempotent producer committing a transaction every {@code transaction-size} records.
+         */
+        TRANSACTIONAL
+    }
+
+    /**
+     * Number of records to send on startup.
+     */
+    private long count = 1;
+
+    private Mode mode = Mode.GENERATE;
+
+    /**
+     * Target send rate in records per second; 0 sends as fast as possible.
+     */
+    private double rate;
+
+    /**
+     * Number of distinct template records encoded up-front in TEMPLATE mode.
+     */
+    private int templates = 16;
+
+    /**
+     * Number of pooled byte buffers per template in TEMPLATE mode. A buffer is rewritten
+     * only after all other buffers of its template have been handed out.
+     */
+    private int buffersPerTemplate = 4;
+
+    /**
+     * Writer schema versions to produce side by side, as "path:weight" entries. Each message
+     * carries its writer schema's fingerprint in the {@code avro.schema.fingerprint} header.
+     * Empty produces only {@code app.avro.schema-path}. Supported in GENERATE and TEMPLATE mode.
+     */
+    private List<String> schemaVersions = new ArrayList<>();
+
+    /**
+     * Where records go; NULL runs the whole pipeline without a broker and ignores the rate,
+     * delivery and sweep settings.
+     */
+    private Sink sink = Sink.KAFKA;
+
+    private Delivery delivery = Delivery.PLAIN;
+
+    /**
+     * Number of records per transaction in TRANSACTIONAL delivery.
+     */
+    private int transactionSize = 100;
+
+    /**
+     * Transactional id prefix; the instance index is appended so instances never fence each other.
+     */
+    private String transactionIdPrefix = "fill-avro-tx-";
+
+    /**
+     * Producer configurations to run one after another, each sending {@code count} records.
+     * An entry is a ';'-separated list of producer properties, e.g.
+     * {@code batch.size=65536;linger.ms=20;compression.type=lz4}, and may also set
+     * {@code delivery} and {@code transaction-size}. Empty runs once with the configured settings.
+     */
+    private List<String> sweep = new ArrayList<>();
+
+    private Cdc cdc = new Cdc();
+
+    public long getCount() {
+        return count;
+    }
+
+    public void setCount(long count) {
+        this.count = count;
+    }
+
+    public Mode getMode() {
+        return mode;
+    }
+
+    public void setMode(Mode mode) {
+        this.mode = mode;
+    }
+
+    public double getRate() {
+        return rate;
+    }
+
+    public void setRate(double rate) {
+        this.rate = rate;
+    }
+
+    public int getTemplates() {
+        return templates;
+    }
+
+    public void setTemplates(int templates) {
+        this.templates = templates;
+    }
+
+    public int getBuffersPerTemplate() {
+        return buffersPerTemplate;
+    }
+
+    public void setBuffersPerTemplate(int buffersPerTemplate) {
+        this.buffersPerTemplate = buffersPerTemplate;
+    }
+
+    public List<String> getSchemaVersions() {
+        return schemaVersions;
+    }
+
+    public void setSchemaVersions(List<String> schemaVersions) {
+        this.schemaVersions = schemaVersions;
+    }
+
+    public Sink getSink() {
+        return sink;
+    }
+
+    public void setSink(Sink sink) {
+        this.sink = sink;
+    }
+
+    public Delivery getDelivery() {
+        return delivery;
+    }
+
+    public void setDelivery(Delivery delivery) {
+        this.delivery = delivery;
+    }
+
+    public int getTransactionSize() {
+        return transactionSize;
+    }
+
+    public void setTransactionSize(int transactionSize) {
+        this.transactionSize = transactionSize;
+    }
+
+    public String getTransactionIdPrefix() {
+        return transactionIdPrefix;
+    }
+
+    public void setTransactionIdPrefix(String transactionIdPrefix) {
+        this.transactionIdPrefix = transactionIdPrefix;
+    }
+
+    public List<String> getSweep() {
+        return sweep;
+    }
+
+    public void setSweep(List<String> sweep) {
+        this.sweep = sweep;
+    }
+
+    public Cdc getCdc() {
+        return cdc;
+    }
+
+    public void setCdc(Cdc cdc) {
+        this.cdc = cdc;
+    }
+
+    public static class Cdc {
+
+        /**
+         * Relative weights of insert, update and delete events.
+         */
+        private int insertWeight = 60;
+
+        private int updateWeight = 30;
+
+        private int deleteWeight = 10;
+
+        /**
+         * Field whose value becomes the message key; a random key is used when empty.
+         */
+        private String keyField = "";
+
+        /**
+         * Candidate fields (dot-notation for nested fields) mutated by updates; all top-level
+         * fields except the key field when empty. Must not include the key field.
+         */
+        private List<String> mutableFields = new ArrayList<>();
+
+        /**
+         * Number of fields mutated per update.
+         */
+        private int fieldsPerUpdate = 1;
+
+        /**
+         * Bounds of the latest-state store; cold keys are evicted beyond either limit.
+         */
+        private int maxKeys = 100_000;
+
+        private long maxBytes = 64L * 1024 * 1024;
+
+        public int getInsertWeight() {
+            return insertWeight;
+        }
+
+        public void setInsertWeight(int insertWeight) {
+            this.insertWeight = insertWeight;
+        }
+
+        public int getUpdateWeight() {
+            return updateWeight;
+        }
+
+        public void setUpdateWeight(int updateWeight) {
+            this.updateWeight = updateWeight;
+        }
+
+        public int getDeleteWeight() {
+            return deleteWeight;
+        }
+
+        public void setDeleteWeight(int deleteWeight) {
+            this.deleteWeight = deleteWeight;
+        }
+
+        public String getKeyField() {
+            return keyField;
+        }
+
+        public void setKeyField(String keyField) {
+            this.keyField = keyField;
+        }
+
+        public List<String> getMutableFields() {
+            return mutableFields;
+        }
+
+        public void setMutableFields(List<String> mutableFields) {
+            this.mutableFields = mutableFields;
+        }
+
+        public int getFieldsPerUpdate() {
+            return fieldsPerUpdate;
+        }
+
+        public void setFieldsPerUpdate(int fieldsPerUpdate) {
+            this.fieldsPerUpdate = fieldsPerUpdate;
+        }
+
+        public int getMaxKeys() {
+            return maxKeys;
+        }
+
+        public void setMaxKeys(int maxKeys) {
+            this.maxKeys = maxKeys;
+        }
+
+        public long getMaxBytes() {
+            return maxBytes;
+        }
+
+        public void setMaxBytes(long maxBytes) {
+            this.maxBytes = maxBytes;
+        }
+    }
+}
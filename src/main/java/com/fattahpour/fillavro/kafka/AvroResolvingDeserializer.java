@@ -0,0 +1,138 @@
+package com.fattahpour.fillavro.kafka;
+
+import com.fattahpour.fillavro.avro.AvroSchemaLoader;
+import org.apache.avro.Schema;
+import org.apache.avro.SchemaNormalization;
+import org.apache.avro.generic.GenericDatumReader;
+import org.apache.avro.generic.GenericRecord;
+import org.apache.avro.io.BinaryDecoder;
+import org.apache.avro.io.DecoderFactory;
+import org.apache.kafka.common.errors.SerializationException;
+import org.apache.kafka.common.header.Header;
+import org.apache.kafka.common.header.Headers;
+import org.apache.kafka.common.serialization.Deserializer;
+
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Consumer-side counterpart of {@link AvroSpecificSerializer}: decodes Avro binary values into
+ * GenericRecords of a reader schema. The writer schema of each message is identified by the
+ * {@value #FINGERPRINT_HEADER} header (the schema's 64-bit parsing fingerprint) and must be one
+ * of the known writer schemas; messages without the header are read as written with the reader
+ * schema. The resolving datum reader of each (writer, reader) pair is built once and cached.
+ *
+ * <p>When created by Kafka, configure it with {@value #READER_SCHEMA_CONFIG} and
+ * {@value #WRITER_SCHEMAS_CONFIG} (comma-separated schema paths or classpath resources).
+ */
+public class AvroResolvingDeserializer implements Deserializer<GenericRecord> {
+
+    public static final String FINGERPRINT_HEADER = "avro.schema.fingerprint";
+    public static final String READER_SCHEMA_CONFIG = "avro.reader.schema";
+    public static final String WRITER_SCHEMAS_CONFIG = "avro.writer.schemas";
+
+    private final Map<Long, Schema> writers = new ConcurrentHashMap<>();
+    private final Map<Long, GenericDatumReader<GenericRecord>> readers = new ConcurrentHashMap<>();
+    private final ThreadLocal<BinaryDecoder> decoders = new ThreadLocal<>();
+    private Schema reader;
+    private long readerFingerprint;
+
+    public AvroResolvingDeserializer() {
+    }
+
+    public AvroResolvingDeserializer(Schema reader, Collection<Schema> writers) {
+        init(reader, writers);
+    }
+
+    @Override
+    public void configure(Map<String, ?> configs, boolean isKey) {
+        Object readerPath = configs.get(READER_SCHEMA_CONFIG);
+        if (readerPath == null) {
+            if (reader == null) {
+                throw new IllegalArgumentException(READER_SCHEMA_CONFIG + " is required");
+            }
+            return;
+        }
+        AvroSchemaLoader loader = new AvroSchemaLoader();
+        List<Schema> writerSchemas = new ArrayList<>();
+        Object writerPaths = configs.get(WRITER_SCHEMAS_CONFIG);
+        if (writerPaths != null) {
+            for (String path : writerPaths.toString().split(",")) {
+                if (!path.isBlank()) {
+                    writerSchemas.add(loader.load(path.trim()));
+                }
+            }
+        }
+        init(loader.load(readerPath.toString()), writerSchemas);
+    }
+
+    private void init(Schema reader, Collection<Schema> writerSchemas) {
+        this.reader = reader;
+        this.readerFingerprint = fingerprint(reader);
+        writers.put(readerFingerprint, reader);
+        for (Schema writer : writerSchemas) {
+            writers.put(fingerprint(writer), writer);
+        }
+    }
+
+    public Schema readerSchema() {
+        return reader;
+    }
+
+    @Override
+    public GenericRecord deserialize(String topic, byte[] data) {
+        return read(readerFingerprint, data);
+    }
+
+    @Override
+    public GenericRecord deserialize(String topic, Headers headers, byte[] data) {
+        Header header = headers == null ? null : headers.lastHeader(FINGERPRINT_HEADER);
+        if (header == null) {
+            return deserialize(topic, data);
+        }
+        if (header.value() == null || header.value().length != Long.BYTES) {
+            throw new SerializationException("Invalid " + FINGERPRINT_HEADER + " header on topic " + topic);
+        }
+        return read(ByteBuffer.wrap(header.value()).getLong(), data);
+    }
+
+    private GenericRecord read(long writerFingerprint, byte[] data) {
+        if (data == null) {
+            return null;
+        }
+        GenericDatumReader<GenericRecord> datumReader = readers.computeIfAbsent(writerFingerprint, fp -> {
+            Schema writer = writers.get(fp);
+            if (writer == null) {
+                throw new SerializationException("Unknown writer schema fingerprint " + Long.toHexString(fp));
+            }
+            return new GenericDatumReader<>(writer, reader);
+        });
+        try {
+            BinaryDecoder decoder = DecoderFactory.get().binaryDecoder(data, decoders.get());
+            decoders.set(decoder);
+            return datumReader.read(null, decoder);
+        } catch (Exception e) {
+            throw new SerializationException("Failed to deserialize Avro record", e);
+        }
+    }
+
+    /**
+     * The 64-bit Rabin fingerprint of the schema's canonical form, as carried in {@value #FINGERPRINT_HEADER}.
+     */
+    public static long fingerprint(Schema schema) {
+        return SchemaNormalization.parsingFingerprint64(schema);
+    }
+
+    public static byte[] fingerprintHeader(Schema schema) {
+        return ByteBuffer.allocate(Long.BYTES).putLong(fingerprint(schema)).array();
+    }
+
+    @Override
+    public void close() {
+        // no-op
+    }
+}
@@ -1,8 +1,10 @@
 package com.fattahpour.fillavro.kafka;
 
+import org.apache.avro.Schema;
 import org.apache.avro.generic.GenericDatumWriter;
 import org.apache.avro.generic.GenericRecord;
 import org.apache.avro.io.BinaryEncoder;
+import org.apache.avro.io.DatumWriter;
 import org.apache.avro.io.EncoderFactory;
 import org.apache.avro.specific.SpecificDatumWriter;
 import org.apache.avro.specific.SpecificRecord;
@@ -10,14 +12,21 @@ import org.apache.kafka.common.serialization.Serializer;
 
 import java.io.ByteArrayOutputStream;
 import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
 
 /**
  * Kafka serializer that prefers Avro SpecificRecord binary encoding but
  * falls back to GenericRecord encoding when a SpecificRecord implementation
  * is not available at runtime (e.g. when generated classes are missing).
+ * Values that are already Avro-encoded ({@code byte[]}) are passed through unchanged.
+ * Datum writers are cached per schema, and a binary encoder is reused per thread.
  */
 public class AvroSpecificSerializer implements Serializer<Object> {
 
+    private final Map<Schema, DatumWriter<Object>> specificWriters = new ConcurrentHashMap<>();
+    private final Map<Schema, DatumWriter<Object>> genericWriters = new ConcurrentHashMap<>();
+    private final ThreadLocal<BinaryEncoder> encoders = new ThreadLocal<>();
+
     @Override
     public void configure(Map<String, ?> configs, boolean isKey) {
         // no-op
@@ -26,18 +35,17 @@ public class AvroSpecificSerializer implements Serializer<Object> {
     @Override
     public byte[] serialize(String topic, Object data) {
         if (data == null) return null;
+        if (data instanceof byte[]) return (byte[]) data;
         try (ByteArrayOutputStream out = new ByteArrayOutputStream()) {
-            BinaryEncoder encoder = EncoderFactory.get().binaryEncoder(out, null);
+            BinaryEncoder encoder = EncoderFactory.get().binaryEncoder(out, encoders.get());
+            encoders.set(encoder);
 
             if (data instanceof SpecificRecord) {
-                @SuppressWarnings("unchecked")
-                SpecificDatumWriter<SpecificRecord> writer = new SpecificDatumWriter<>(((SpecificRecord) data).getSchema());
-                writer.write((SpecificRecord) data, encoder);
+                Schema schema = ((SpecificRecord) data).getSchema();
+                specificWriters.computeIfAbsent(schema, SpecificDatumWriter::new).write(data, encoder);
             } else if (data instanceof GenericRecord) {
-                GenericRecord gr = (GenericRecord) data;
-                @SuppressWarnings("unchecked")
-                GenericDatumWriter<GenericRecord> writer = new GenericDatumWriter<>(gr.getSchema());
-                writer.write(gr, encoder);
+                Schema schema = ((GenericRecord) data).getSchema();
+                genericWriters.computeIfAbsent(schema, GenericDatumWriter::new).write(data, encoder);
             } else {
                 // Last resort: try to cast to SpecificRecord (for compatibility) and fail with clear message
                 throw new IllegalArgumentException("AvroSpecificSerializer expected SpecificRecord or GenericRecord, got: " + data.getClass());
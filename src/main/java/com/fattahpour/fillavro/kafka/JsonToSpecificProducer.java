@@ -51,12 +51,8 @@ public class JsonToSpecificProducer {
         String json = Files.readString(Path.of(JSON_PATH));
         System.out.println("Read JSON (length=" + json.length() + ") from " + JSON_PATH);
 
-        // Convert JSON -> GenericRecord
-        GenericDatumReader<GenericRecord> reader = new GenericDatumReader<>(schema);
-        GenericRecord generic = reader.read(null, DecoderFactory.get().jsonDecoder(schema, json));
-
-        // Convert GenericRecord -> SpecificRecord (if generated classes available)
-        Object specificObj = SpecificData.get().deepCopy(schema, generic);
+        // Convert JSON -> GenericRecord -> SpecificRecord (if generated classes available)
+        Object specificObj = fromJson(schema, json);
         if (!(specificObj instanceof SpecificRecord)) {
             System.out.println("Warning: generated SpecificRecord class not available for schema " + schema.getFullName() + ". Sending binary of GenericRecord instead.");
         } else {
@@ -82,7 +78,17 @@ public class JsonToSpecificProducer {
         System.out.println("JsonToSpecificProducer finished.");
     }
 
-    private static byte[] toAvroBytes(SpecificRecord record, Schema schema) throws IOException {
+    /**
+     * Decodes an Avro JSON document and converts it to a SpecificRecord when the generated class
+     * for the schema is on the classpath; otherwise a GenericRecord is returned.
+     */
+    public static Object fromJson(Schema schema, String json) throws IOException {
+        GenericDatumReader<GenericRecord> reader = new GenericDatumReader<>(schema);
+        GenericRecord generic = reader.read(null, DecoderFactory.get().jsonDecoder(schema, json));
+        return SpecificData.get().deepCopy(schema, generic);
+    }
+
+    public static byte[] toAvroBytes(SpecificRecord record, Schema schema) throws IOException {
         if (record == null) throw new IllegalArgumentException("record is null");
         ByteArrayOutputStream out = new ByteArrayOutputStream();
         BinaryEncoder encoder = EncoderFactory.get().binaryEncoder(out, null);
@@ -0,0 +1,81 @@
+package com.fattahpour.fillavro.kafka;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Thread-safe latency histogram with bounded memory. Values are kept in microseconds:
+ * exactly below 1024 µs and in log-linear buckets (under 0.2% relative error) above.
+ */
+public class LatencyRecorder {
+
+    private static final int LINEAR = 1024;
+    private static final int SUB_BUCKET_BITS = 9;
+    private static final int SUB_BUCKETS = 1 << SUB_BUCKET_BITS;
+    private static final int MAX_EXPONENT = 62;
+
+    private final AtomicLongArray counts = new AtomicLongArray(LINEAR + (MAX_EXPONENT - 9) * SUB_BUCKETS);
+    private final AtomicLong count = new AtomicLong();
+    private final AtomicLong max = new AtomicLong();
+
+    public void recordNanos(long nanos) {
+        long micros = Math.max(0, TimeUnit.NANOSECONDS.toMicros(nanos));
+        counts.incrementAndGet(indexOf(micros));
+        count.incrementAndGet();
+        max.accumulateAndGet(micros, Math::max);
+    }
+
+    public long count() {
+        return count.get();
+    }
+
+    public double maxMillis() {
+        return max.get() / 1000.0;
+    }
+
+    /**
+     * Returns the latency at {@code percentile} (0-100) in milliseconds, or 0 when nothing was recorded.
+     */
+    public double percentileMillis(double percentile) {
+        long total = count.get();
+        if (total == 0) {
+            return 0;
+        }
+        long rank = Math.max(1, (long) Math.ceil(total * percentile / 100.0));
+        long seen = 0;
+        for (int i = 0; i < counts.length(); i++) {
+            seen += counts.get(i);
+            if (seen >= rank) {
+                return Math.min(valueOf(i), max.get()) / 1000.0;
+            }
+        }
+        return maxMillis();
+    }
+
+    public String summary() {
+        return String.format("p50=%.2fms p99=%.2fms p99.9=%.2fms max=%.2fms",
+                percentileMillis(50), percentileMillis(99), percentileMillis(99.9), maxMillis());
+    }
+
+    private static int indexOf(long micros) {
+        if (micros < LINEAR) {
+            return (int) micros;
+        }
+        int exponent = 63 - Long.numberOfLeadingZeros(micros);
+        int subBucket = (int) (micros >>> (exponent - SUB_BUCKET_BITS)) & (SUB_BUCKETS - 1);
+        return LINEAR + (exponent - 10) * SUB_BUCKETS + subBucket;
+    }
+
+    /**
+     * Upper bound of the bucket at {@code index}.
+     */
+    private static long valueOf(int index) {
+        if (index < LINEAR) {
+            return index;
+        }
+        int exponent = (index - LINEAR) / SUB_BUCKETS + 10;
+        long subBucket = (index - LINEAR) % SUB_BUCKETS;
+        return ((SUB_BUCKETS + subBucket + 1) << (exponent - SUB_BUCKET_BITS)) - 1;
+    }
+}
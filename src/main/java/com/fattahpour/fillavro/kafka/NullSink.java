@@ -0,0 +1,159 @@
+package com.fattahpour.fillavro.kafka;
+
+import org.apache.kafka.clients.producer.ProducerConfig;
+import org.apache.kafka.clients.producer.ProducerRecord;
+import org.apache.kafka.common.serialization.Serializer;
+import org.apache.kafka.common.utils.Utils;
+import org.springframework.kafka.core.ProducerFactory;
+
+import java.lang.management.ManagementFactory;
+import java.lang.management.OperatingSystemMXBean;
+import java.lang.management.ThreadMXBean;
+import java.util.Map;
+import java.util.function.Supplier;
+
+/**
+ * Dry-run sink: serializes keys and values with the serializers of the configured producer
+ * (see {@link #forProducer}) and discards the bytes. Measures the CPU time and heap allocation
+ * of the calling thread through the JMX thread MXBean from construction until
+ * {@link #summary()}, so it must be fed from a single thread.
+ */
+final class NullSink implements AutoCloseable {
+
+    private final Serializer<Object> keySerializer;
+    private final Serializer<Object> valueSerializer;
+    private final ThreadMXBean threads = ManagementFactory.getThreadMXBean();
+    private final OperatingSystemMXBean os = ManagementFactory.getOperatingSystemMXBean();
+
+    private final long startedNanos;
+    private final long startCpuNanos;
+    private final long startUserNanos;
+    private final long startAllocatedBytes;
+    private final long startProcessCpuNanos;
+    private long records;
+    private long bytes;
+
+    NullSink(Serializer<Object> keySerializer, Serializer<Object> valueSerializer) {
+        this.keySerializer = keySerializer;
+        this.valueSerializer = valueSerializer;
+        this.startCpuNanos = threadCpuNanos();
+        this.startUserNanos = threadUserNanos();
+        this.startAllocatedBytes = threadAllocatedBytes();
+        this.startProcessCpuNanos = processCpuNanos();
+        this.startedNanos = System.nanoTime();
+    }
+
+    /**
+     * A sink using the key and value serializers the producer factory would give its producers:
+     * serializer instances set on the factory, otherwise the configured serializer classes,
+     * configured with the producer properties as {@code KafkaProducer} does.
+     */
+    @SuppressWarnings("unchecked")
+    static NullSink forProducer(ProducerFactory<?, ?> factory) {
+        Map<String, Object> properties = factory.getConfigurationProperties();
+        Serializer<Object> key = serializer((Supplier<Serializer<Object>>) (Supplier<?>) factory.getKeySerializerSupplier(),
+                properties, ProducerConfig.KEY_SERIALIZER_CLASS_CONFIG, true);
+        Serializer<Object> value = serializer((Supplier<Serializer<Object>>) (Supplier<?>) factory.getValueSerializerSupplier(),
+                properties, ProducerConfig.VALUE_SERIALIZER_CLASS_CONFIG, false);
+        return new NullSink(key, value);
+    }
+
+    @SuppressWarnings("unchecked")
+    private static Serializer<Object> serializer(Supplier<Serializer<Object>> supplier, Map<String, Object> properties,
+                                                 String classProperty, boolean isKey) {
+        Serializer<Object> serializer = supplier.get();
+        if (serializer != null) {
+            return serializer;
+        }
+        Object configured = properties.get(classProperty);
+        try {
+            if (configured instanceof Class<?> type) {
+                serializer = (Serializer<Object>) Utils.newInstance(type);
+            } else if (configured instanceof String name && !name.isBlank()) {
+                serializer = Utils.newInstance(name.trim(), Serializer.class);
+            } else {
+                throw new IllegalStateException("No " + classProperty + " configured for the producer");
+            }
+        } catch (ClassNotFoundException e) {
+            throw new IllegalStateException("Cannot load " + classProperty + " " + configured, e);
+        }
+        serializer.configure(properties, isKey);
+        return serializer;
+    }
+
+    void send(ProducerRecord<Object, Object> record) {
+        if (record.key() != null) {
+            byte[] key = keySerializer.serialize(record.topic(), record.headers(), record.key());
+            if (key != null) {
+                bytes += key.length;
+            }
+        }
+        byte[] value = valueSerializer.serialize(record.topic(), record.headers(), record.value());
+        if (value != null) {
+            bytes += value.length;
+        }
+        records++;
+    }
+
+    long records() {
+        return records;
+    }
+
+    long bytes() {
+        return bytes;
+    }
+
+    /**
+     * Throughput, allocation per record and CPU time of the feeding thread since construction.
+     * Records per CPU-second is the throughput one fully busy core sustains.
+     */
+    String summary() {
+        double seconds = (System.nanoTime() - startedNanos) / 1e9;
+        long cpuNanos = delta(threadCpuNanos(), startCpuNanos);
+        long userNanos = delta(threadUserNanos(), startUserNanos);
+        long allocated = delta(threadAllocatedBytes(), startAllocatedBytes);
+        long processCpuNanos = delta(processCpuNanos(), startProcessCpuNanos);
+        StringBuilder summary = new StringBuilder(String.format("%d records in %.3f s: %.0f records/s, %.2f MB/s",
+                records, seconds, records / seconds, bytes / seconds / (1024 * 1024)));
+        if (allocated >= 0 && records > 0) {
+            summary.append(String.format(", %d B allocated/record", allocated / records));
+        }
+        if (cpuNanos > 0) {
+            summary.append(String.format(", thread CPU %d ms (user %d ms) = %.0f records per CPU-second",
+                    cpuNanos / 1_000_000, Math.max(userNanos, 0) / 1_000_000, records / (cpuNanos / 1e9)));
+        }
+        if (processCpuNanos >= 0) {
+            summary.append(String.format(", process CPU %d ms", processCpuNanos / 1_000_000));
+        }
+        return summary.toString();
+    }
+
+    @Override
+    public void close() {
+        keySerializer.close();
+        valueSerializer.close();
+    }
+
+    private long threadCpuNanos() {
+        return threads.isCurrentThreadCpuTimeSupported() ? threads.getCurrentThreadCpuTime() : -1;
+    }
+
+    private long threadUserNanos() {
+        return threads.isCurrentThreadCpuTimeSupported() ? threads.getCurrentThreadUserTime() : -1;
+    }
+
+    private long threadAllocatedBytes() {
+        if (threads instanceof com.sun.management.ThreadMXBean allocation && allocation.isThreadAllocatedMemorySupported()) {
+            return allocation.getCurrentThreadAllocatedBytes();
+        }
+        return -1;
+    }
+
+    private long processCpuNanos() {
+        return os instanceof com.sun.management.OperatingSystemMXBean process ? process.getProcessCpuTime() : -1;
+    }
+
+    private static long delta(long end, long start) {
+        return end < 0 || start < 0 ? -1 : end - start;
+    }
+}
@@ -0,0 +1,163 @@
+package com.fattahpour.fillavro.kafka;
+
+import com.fattahpour.fillavro.config.InstanceProperties;
+import com.fattahpour.fillavro.config.SenderProperties;
+import org.apache.kafka.clients.producer.ProducerConfig;
+import org.springframework.kafka.core.DefaultKafkaProducerFactory;
+import org.springframework.kafka.core.KafkaTemplate;
+import org.springframework.kafka.core.ProducerFactory;
+
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+
+/**
+ * Producer setup for one send run: a delivery guarantee plus producer property overrides on
+ * top of the application's producer factory. The application's {@link KafkaTemplate} is used
+ * as-is for plain delivery without overrides; otherwise a dedicated producer factory is
+ * created by a {@link FactoryCreator} and reset again by {@link #close()}.
+ */
+final class ProducerSettings implements AutoCloseable {
+
+    /**
+     * Creates the dedicated producer factory for settings that differ from the application's;
+     * {@code transactionIdPrefix} is null unless delivery is transactional.
+     */
+    @FunctionalInterface
+    interface FactoryCreator {
+
+        ProducerFactory<Object, Object> create(Map<String, Object> properties, String transactionIdPrefix);
+    }
+
+    static final FactoryCreator DEFAULT_FACTORIES = (properties, transactionIdPrefix) -> {
+        DefaultKafkaProducerFactory<Object, Object> factory = new DefaultKafkaProducerFactory<>(properties);
+        if (transactionIdPrefix != null) {
+            factory.setTransactionIdPrefix(transactionIdPrefix);
+        }
+        return factory;
+    };
+
+    /**
+     * Producer properties that trade throughput against latency and durability; always reported.
+     */
+    private static final List<String> REPORTED = List.of(
+            ProducerConfig.ACKS_CONFIG,
+            ProducerConfig.ENABLE_IDEMPOTENCE_CONFIG,
+            ProducerConfig.BATCH_SIZE_CONFIG,
+            ProducerConfig.LINGER_MS_CONFIG,
+            ProducerConfig.COMPRESSION_TYPE_CONFIG);
+
+    private final SenderProperties.Delivery delivery;
+    private final int transactionSize;
+    private final Map<String, Object> properties;
+    private final Map<String, String> overrides;
+    private final KafkaTemplate<Object, Object> template;
+    private final ProducerFactory<Object, Object> factory;
+
+    private ProducerSettings(SenderProperties.Delivery delivery, int transactionSize, Map<String, Object> properties,
+                             Map<String, String> overrides, KafkaTemplate<Object, Object> template,
+                             ProducerFactory<Object, Object> factory) {
+        this.delivery = delivery;
+        this.transactionSize = transactionSize;
+        this.properties = properties;
+        this.overrides = overrides;
+        this.template = template;
+        this.factory = factory;
+    }
+
+    /**
+     * Builds the settings for one sweep entry ({@code name=value} pairs separated by ';'), or
+     * for the configured defaults when {@code sweepEntry} is empty.
+     */
+    static ProducerSettings create(KafkaTemplate<Object, Object> base, SenderProperties sender,
+                                   InstanceProperties instance, String sweepEntry) {
+        return create(base, sender, instance, sweepEntry, DEFAULT_FACTORIES);
+    }
+
+    static ProducerSettings create(KafkaTemplate<Object, Object> base, SenderProperties sender,
+                                   InstanceProperties instance, String sweepEntry, FactoryCreator factories) {
+        SenderProperties.Delivery delivery = sender.getDelivery();
+        int transactionSize = sender.getTransactionSize();
+        Map<String, String> overrides = new LinkedHashMap<>();
+        for (String pair : sweepEntry.split(";")) {
+            if (pair.isBlank()) {
+                continue;
+            }
+            String[] kv = pair.split("=", 2);
+            if (kv.length != 2) {
+                throw new IllegalArgumentException("Expected name=value in app.sender.sweep entry, got: " + pair);
+            }
+            String name = kv[0].trim();
+            String value = kv[1].trim();
+            switch (name) {
+                case "delivery" -> delivery = SenderProperties.Delivery.valueOf(value.toUpperCase(Locale.ROOT));
+                case "transaction-size" -> transactionSize = Integer.parseInt(value);
+                default -> overrides.put(name, value);
+            }
+        }
+        if (transactionSize <= 0) {
+            throw new IllegalArgumentException("Transaction size must be > 0, got " + transactionSize);
+        }
+
+        ProducerFactory<Object, Object> baseFactory = base.getProducerFactory();
+        Map<String, Object> properties = new LinkedHashMap<>();
+        if (baseFactory != null) {
+            properties.putAll(baseFactory.getConfigurationProperties());
+        }
+        if (delivery == SenderProperties.Delivery.PLAIN && overrides.isEmpty()) {
+            return new ProducerSettings(delivery, transactionSize, properties, overrides, base, null);
+        }
+        properties.putAll(overrides);
+        if (delivery != SenderProperties.Delivery.PLAIN) {
+            properties.put(ProducerConfig.ENABLE_IDEMPOTENCE_CONFIG, true);
+            properties.put(ProducerConfig.ACKS_CONFIG, "all");
+        }
+        String transactionIdPrefix = delivery == SenderProperties.Delivery.TRANSACTIONAL
+                ? sender.getTransactionIdPrefix() + instance.getIndex() + "-"
+                : null;
+        ProducerFactory<Object, Object> factory = factories.create(properties, transactionIdPrefix);
+        return new ProducerSettings(delivery, transactionSize, properties, overrides, new KafkaTemplate<>(factory), factory);
+    }
+
+    KafkaTemplate<Object, Object> template() {
+        return template;
+    }
+
+    boolean isTransactional() {
+        return delivery == SenderProperties.Delivery.TRANSACTIONAL;
+    }
+
+    int transactionSize() {
+        return transactionSize;
+    }
+
+    /**
+     * Delivery mode and effective producer settings (Kafka defaults where not configured),
+     * e.g. {@code delivery=idempotent acks=all enable.idempotence=true batch.size=16384 ...}.
+     */
+    String describe() {
+        Map<String, Object> defaults = ProducerConfig.configDef().defaultValues();
+        StringBuilder description = new StringBuilder("delivery=").append(delivery.name().toLowerCase(Locale.ROOT));
+        if (isTransactional()) {
+            description.append(" transaction-size=").append(transactionSize);
+        }
+        for (String name : REPORTED) {
+            description.append(' ').append(name).append('=').append(properties.getOrDefault(name, defaults.get(name)));
+        }
+        overrides.forEach((name, value) -> {
+            if (!REPORTED.contains(name)) {
+                description.append(' ').append(name).append('=').append(value);
+            }
+        });
+        return description.toString();
+    }
+
+    @Override
+    public void close() {
+        if (factory != null) {
+            // closes the factory's producers
+            factory.reset();
+        }
+    }
+}
@@ -0,0 +1,47 @@
+package com.fattahpour.fillavro.kafka;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Paces callers to a fixed number of permits per second. Permits are scheduled on a
+ * fixed timeline from the first call, so short stalls are caught up rather than lost.
+ * A rate of zero or less disables pacing.
+ */
+public class SendRateLimiter {
+
+    private final long intervalNanos;
+    private final AtomicLong issued = new AtomicLong();
+    private volatile long start;
+
+    public SendRateLimiter(double permitsPerSecond) {
+        this.intervalNanos = permitsPerSecond > 0 ? Math.max(1, Math.round(1e9 / permitsPerSecond)) : 0;
+    }
+
+    public boolean isUnlimited() {
+        return intervalNanos == 0;
+    }
+
+    public void acquire() {
+        if (intervalNanos == 0) {
+            return;
+        }
+        long n = issued.getAndIncrement();
+        if (n == 0) {
+            start = System.nanoTime();
+            return;
+        }
+        while (start == 0) {
+            Thread.onSpinWait();
+        }
+        long due = start + n * intervalNanos;
+        long wait;
+        while ((wait = due - System.nanoTime()) > 0) {
+            if (wait > 50_000) {
+                LockSupport.parkNanos(wait - 20_000);
+            } else {
+                Thread.onSpinWait();
+            }
+        }
+    }
+}
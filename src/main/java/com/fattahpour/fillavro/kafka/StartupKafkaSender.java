@@ -5,8 +5,18 @@ import org.apache.avro.generic.GenericRecord;
 import org.apache.avro.specific.SpecificData;
 import org.apache.avro.specific.SpecificRecord;
 import org.apache.kafka.clients.producer.ProducerRecord;
+import org.apache.kafka.common.header.Header;
+import org.apache.kafka.common.header.internals.RecordHeader;
 import com.fattahpour.fillavro.avro.AvroRecordGenerator;
 import com.fattahpour.fillavro.avro.AvroSchemaLoader;
+import com.fattahpour.fillavro.avro.ChangeEvent;
+import com.fattahpour.fillavro.avro.ChangeEventGenerator;
+import com.fattahpour.fillavro.avro.SchemaVersions;
+import com.fattahpour.fillavro.config.InstanceProperties;
+import com.fattahpour.fillavro.config.SenderProperties;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.boot.CommandLineRunner;
 import org.springframework.kafka.core.KafkaTemplate;
@@ -15,14 +25,21 @@ import org.springframework.stereotype.Component;
 import com.fattahpour.ExampleUser;
 import com.fattahpour.Address;
 import com.fattahpour.Status;
+import java.lang.management.ManagementFactory;
 import java.util.ArrayList;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.SplittableRandom;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.LongFunction;
 
 @Component
 public class StartupKafkaSender implements CommandLineRunner {
 
+    private static final Logger log = LoggerFactory.getLogger(StartupKafkaSender.class);
+
     private final KafkaTemplate<Object, Object> kafkaTemplate;
     private final AvroSchemaLoader schemaLoader;
     private final AvroRecordGenerator recordGenerator;
@@ -30,14 +47,38 @@ public class StartupKafkaSender implements CommandLineRunner {
     private final String topic;
     private final Integer partition;
     private final String key;
+    private final SenderProperties sender;
+    private final InstanceProperties instance;
+    private ProducerSettings.FactoryCreator producerFactories = ProducerSettings.DEFAULT_FACTORIES;
+    private KafkaTemplate<Object, Object> template;
+    private SendRateLimiter rateLimiter = new SendRateLimiter(0);
+    private LatencyRecorder ackLatency = new LatencyRecorder();
+    private AtomicLong failedSends = new AtomicLong();
+    private boolean firstRecordSent;
+    private int templateRuns;
+    private ChangeEventGenerator changes;
+    private long[] opCounts;
+
+    public StartupKafkaSender(KafkaTemplate<Object, Object> kafkaTemplate,
+                              AvroSchemaLoader schemaLoader,
+                              AvroRecordGenerator recordGenerator,
+                              String schemaPath,
+                              String topic,
+                              Integer partition,
+                              String key) {
+        this(kafkaTemplate, schemaLoader, recordGenerator, schemaPath, topic, partition, key, new SenderProperties(), new InstanceProperties());
+    }
 
+    @Autowired
     public StartupKafkaSender(KafkaTemplate<Object, Object> kafkaTemplate,
                               AvroSchemaLoader schemaLoader,
                               AvroRecordGenerator recordGenerator,
                               @Value("${app.avro.schema-path}") String schemaPath,
                               @Value("${app.kafka.topic}") String topic,
                               @Value("${app.kafka.partition}") Integer partition,
-                              @Value("${app.kafka.key:}") String key) {
+                              @Value("${app.kafka.key:}") String key,
+                              SenderProperties sender,
+                              InstanceProperties instance) {
         this.kafkaTemplate = kafkaTemplate;
         this.schemaLoader = schemaLoader;
         this.recordGenerator = recordGenerator;
@@ -45,13 +86,244 @@ public class StartupKafkaSender implements CommandLineRunner {
         this.topic = topic;
         this.partition = partition;
         this.key = key;
+        this.sender = sender == null ? new SenderProperties() : sender;
+        this.instance = instance == null ? new InstanceProperties() : instance;
+    }
+
+    /**
+     * Replaces how dedicated producer factories are created for delivery modes and sweep entries
+     * that differ from the application's producer, e.g. with mock producers.
+     */
+    void setProducerFactories(ProducerSettings.FactoryCreator producerFactories) {
+        this.producerFactories = producerFactories;
     }
 
     @Override
     public void run(String... args) {
+        instance.validate();
         Schema schema = schemaLoader.load(schemaPath);
+        long count = instance.share(sender.getCount());
+        if (instance.getCount() > 1) {
+            log.info("Instance {} of {}: sending {} of {} records", instance.getIndex(), instance.getCount(),
+                    count, sender.getCount());
+        }
+        SchemaVersions versions = null;
+        if (!sender.getSchemaVersions().isEmpty()) {
+            if (sender.getMode() == SenderProperties.Mode.CDC) {
+                throw new IllegalArgumentException("app.sender.schema-versions is not supported in CDC mode");
+            }
+            versions = SchemaVersions.load(schemaLoader, sender.getSchemaVersions());
+        }
+        if (sender.getSink() == SenderProperties.Sink.NULL) {
+            dryRun(schema, versions, count);
+            return;
+        }
+        List<String> runs = sender.getSweep().isEmpty() ? List.of("") : sender.getSweep();
+        List<String> results = new ArrayList<>();
+        for (String run : runs) {
+            try (ProducerSettings settings = ProducerSettings.create(kafkaTemplate, sender, instance, run, producerFactories)) {
+                results.add(sendRun(schema, versions, count, settings));
+            }
+        }
+        if (results.size() > 1) {
+            log.info("Sweep results:\n{}", String.join("\n", results));
+        }
+    }
+
+    /**
+     * Sends {@code count} records with one producer configuration and returns its summary line.
+     * {@code versions} is null unless several writer schema versions are configured. Failed sends
+     * are counted in the summary and excluded from the rate.
+     */
+    private String sendRun(Schema schema, SchemaVersions versions, long count, ProducerSettings settings) {
+        template = settings.template();
+        rateLimiter = new SendRateLimiter(instance.share(sender.getRate()));
+        ackLatency = new LatencyRecorder();
+        failedSends = new AtomicLong();
+        LatencyRecorder commitLatency = new LatencyRecorder();
+        LongFunction<ProducerRecord<Object, Object>> records = recordSource(schema, versions);
+
+        long started = System.nanoTime();
+        if (settings.isTransactional()) {
+            sendInTransactions(count, settings.transactionSize(), records, commitLatency);
+        } else {
+            for (long i = 0; i < count; i++) {
+                send(records.apply(i));
+            }
+        }
+        logChangeEvents();
+        if (count <= 1) {
+            return settings.describe();
+        }
+        if (!settings.isTransactional()) {
+            // committed transactions are already flushed
+            template.flush();
+        }
+        double seconds = (System.nanoTime() - started) / 1e9;
+        long failed = failedSends.get();
+        String summary = String.format("%.0f records/s (%d records, %d failed, in %.3f s, %s mode) with %s, ack latency %s",
+                (count - failed) / seconds, count, failed, seconds, sender.getMode(), settings.describe(),
+                ackLatency.summary());
+        if (settings.isTransactional()) {
+            summary += ", commit latency " + commitLatency.summary();
+        }
+        log.info("Sent {}", summary);
+        return summary;
+    }
+
+    /**
+     * Runs the full record pipeline for the configured mode, key strategy and schema versions
+     * into a {@link NullSink} using the application producer's serializers, without a broker
+     * and without rate limiting.
+     */
+    private void dryRun(Schema schema, SchemaVersions versions, long count) {
+        if (sender.getRate() > 0) {
+            log.info("Null sink ignores app.sender.rate={}", sender.getRate());
+        }
+        LongFunction<ProducerRecord<Object, Object>> records = recordSource(schema, versions);
+        try (NullSink sink = NullSink.forProducer(kafkaTemplate.getProducerFactory())) {
+            for (long i = 0; i < count; i++) {
+                sink.send(records.apply(i));
+            }
+            logChangeEvents();
+            log.info("Null sink ({} mode): {}", sender.getMode(), sink.summary());
+        }
+    }
+
+    /**
+     * The records of one run for the configured mode; {@code versions} is null unless several
+     * writer schema versions are configured.
+     */
+    private LongFunction<ProducerRecord<Object, Object>> recordSource(Schema schema, SchemaVersions versions) {
+        changes = null;
+        if (sender.getMode() == SenderProperties.Mode.TEMPLATE) {
+            return versions == null
+                    ? templateVariants(SchemaVersions.single(schema), false)
+                    : templateVariants(versions, true);
+        }
+        if (sender.getMode() == SenderProperties.Mode.CDC) {
+            changes = new ChangeEventGenerator(recordGenerator, schema, sender.getCdc());
+            opCounts = new long[ChangeEvent.Op.values().length];
+            return changeEvents(changes, opCounts);
+        }
+        return versions == null ? i -> generatedRecord(schema) : versionedRecords(versions);
+    }
+
+    private void logChangeEvents() {
+        if (changes != null) {
+            log.info("CDC events: {} inserts, {} updates, {} deletes; {} live keys, {} evicted",
+                    opCounts[0], opCounts[1], opCounts[2], changes.liveKeys(), changes.evictions());
+        }
+    }
+
+    /**
+     * Sends records in transactions of {@code size}; the commit latency of a transaction is the
+     * time from its last send until the commit (including the flush of its records) completes.
+     */
+    private void sendInTransactions(long count, int size, LongFunction<ProducerRecord<Object, Object>> records,
+                                    LatencyRecorder commitLatency) {
+        long[] sendsDone = new long[1];
+        for (long first = 0; first < count; first += size) {
+            long from = first;
+            long to = Math.min(count, first + size);
+            template.executeInTransaction(operations -> {
+                for (long i = from; i < to; i++) {
+                    send(records.apply(i));
+                }
+                sendsDone[0] = System.nanoTime();
+                return null;
+            });
+            commitLatency.recordNanos(System.nanoTime() - sendsDone[0]);
+        }
+    }
+
+    private void send(ProducerRecord<Object, Object> producerRecord) {
+        if (!firstRecordSent) {
+            firstRecordSent = true;
+            // time-to-first-record, measured by StartupBenchmark
+            log.info("First record ready {} ms after JVM start", ManagementFactory.getRuntimeMXBean().getUptime());
+        }
+        rateLimiter.acquire();
+        long sentAt = System.nanoTime();
+        CompletableFuture<?> result = template.send(producerRecord);
+        if (result != null) {
+            result.whenComplete((r, e) -> {
+                if (e == null) {
+                    ackLatency.recordNanos(System.nanoTime() - sentAt);
+                } else if (failedSends.getAndIncrement() == 0) {
+                    log.warn("Send failed (further failures are only counted): {}", e.toString());
+                }
+            });
+        }
+    }
+
+    /**
+     * Pre-encoded template variants of each schema version. Every pool of every run rewrites its
+     * IDs from its own random stream, so versions and sweep runs never repeat each other's IDs.
+     */
+    private LongFunction<ProducerRecord<Object, Object>> templateVariants(SchemaVersions versions, boolean withHeaders) {
+        AvroSpecificSerializer serializer = new AvroSpecificSerializer();
+        List<TemplateRecordPool> pools = new ArrayList<>();
+        int run = templateRuns++;
+        for (int v = 0; v < versions.size(); v++) {
+            pools.add(TemplateRecordPool.build(versions.schemas().get(v), recordGenerator, serializer,
+                    sender.getTemplates(), sender.getBuffersPerTemplate(), "template-mutations-" + run + "-" + v));
+        }
+        List<List<Header>> headers = fingerprintHeaders(versions, withHeaders);
+        SplittableRandom random = new SplittableRandom(recordGenerator.streamSeed("schema-versions"));
+        return i -> {
+            int version = versions.sampleIndex(random);
+            return new ProducerRecord<>(topic, partition, null, messageKey(), pools.get(version).next(), headers.get(version));
+        };
+    }
+
+    /**
+     * Generic records of a weighted mix of schema versions, each tagged with its writer schema
+     * fingerprint so that consumers can resolve it (see {@link AvroResolvingDeserializer}).
+     */
+    private LongFunction<ProducerRecord<Object, Object>> versionedRecords(SchemaVersions versions) {
+        List<List<Header>> headers = fingerprintHeaders(versions, true);
+        SplittableRandom random = new SplittableRandom(recordGenerator.streamSeed("schema-versions"));
+        return i -> {
+            int version = versions.sampleIndex(random);
+            GenericRecord record = recordGenerator.generateRecord(versions.schemas().get(version));
+            return new ProducerRecord<>(topic, partition, null, messageKey(), record, headers.get(version));
+        };
+    }
+
+    /**
+     * The configured key, or the next key of this instance's slice of the key space, which is
+     * unique across instances (the same strategy in generate and template mode).
+     */
+    private String messageKey() {
+        return (key != null && !key.isBlank()) ? key : recordGenerator.randomKey();
+    }
+
+    private static List<List<Header>> fingerprintHeaders(SchemaVersions versions, boolean enabled) {
+        List<List<Header>> headers = new ArrayList<>();
+        for (Schema version : versions.schemas()) {
+            headers.add(enabled
+                    ? List.of(new RecordHeader(AvroResolvingDeserializer.FINGERPRINT_HEADER,
+                            AvroResolvingDeserializer.fingerprintHeader(version)))
+                    : List.of());
+        }
+        return headers;
+    }
+
+    /**
+     * An insert/update/delete mix; deletes are sent as tombstones (null values).
+     */
+    private LongFunction<ProducerRecord<Object, Object>> changeEvents(ChangeEventGenerator changes, long[] opCounts) {
+        return i -> {
+            ChangeEvent event = changes.next();
+            opCounts[event.getOp().ordinal()]++;
+            return new ProducerRecord<>(topic, partition, event.getKey(), event.getValue());
+        };
+    }
+
+    private ProducerRecord<Object, Object> generatedRecord(Schema schema) {
         GenericRecord record = recordGenerator.generateRecord(schema);
-        String messageKey = (key != null && !key.isBlank()) ? key : recordGenerator.randomKey();
+        String messageKey = messageKey();
         // If generated SpecificRecord classes are available, try to build an ExampleUser instance
         // using the generated builder so the produced message is a true SpecificRecord.
         try {
@@ -59,24 +331,21 @@ public class StartupKafkaSender implements CommandLineRunner {
 
             // id: use record value or fallback to generated random key
             Object v = record.get("id");
-            b.setId(v == null ? recordGenerator.randomKey() : v.toString());
+            b.setId(v == null ? recordGenerator.randomKey() : text(v));
 
             // strings: never leave null — use empty string as sensible default
-            v = record.get("email");
-            b.setEmail(v == null ? "" : v.toString());
-            v = record.get("firstName");
-            b.setFirstName(v == null ? "" : v.toString());
-            v = record.get("lastName");
-            b.setLastName(v == null ? "" : v.toString());
+            b.setEmail(text(record.get("email")));
+            b.setFirstName(text(record.get("firstName")));
+            b.setLastName(text(record.get("lastName")));
 
             // address: always set an Address builder with non-null string fields
             Object addrObj = record.get("address");
             Address.Builder ab = Address.newBuilder();
             if (addrObj instanceof GenericRecord) {
                 GenericRecord addr = (GenericRecord) addrObj;
-                Object av = addr.get("street"); ab.setStreet(av == null ? "" : av.toString());
-                av = addr.get("city"); ab.setCity(av == null ? "" : av.toString());
-                av = addr.get("postalCode"); ab.setPostalCode(av == null ? "" : av.toString());
+                ab.setStreet(text(addr.get("street")));
+                ab.setCity(text(addr.get("city")));
+                ab.setPostalCode(text(addr.get("postalCode")));
             } else {
                 ab.setStreet("").setCity("").setPostalCode("");
             }
@@ -87,7 +356,7 @@ public class StartupKafkaSender implements CommandLineRunner {
             List<CharSequence> tags = new ArrayList<>();
             if (tagsObj instanceof List) {
                 List<?> raw = (List<?>) tagsObj;
-                for (Object o : raw) tags.add(o == null ? "" : o.toString());
+                for (Object o : raw) tags.add(text(o));
             }
             b.setTags(tags);
 
@@ -98,7 +367,7 @@ public class StartupKafkaSender implements CommandLineRunner {
                 Map<?,?> raw = (Map<?,?>) metaObj;
                 for (Map.Entry<?,?> e : raw.entrySet()) {
                     Object kk = e.getKey(); Object vv = e.getValue();
-                    map.put(kk == null ? "" : kk.toString(), vv == null ? "" : vv.toString());
+                    map.put(text(kk), text(vv));
                 }
             }
             b.setMetadata(map);
@@ -125,16 +394,24 @@ public class StartupKafkaSender implements CommandLineRunner {
             if (statusToSet != null) b.setStatus(statusToSet);
 
             ExampleUser specific = b.build();
-            ProducerRecord<Object, Object> producerRecord = new ProducerRecord<>(topic, partition, messageKey, specific);
-            kafkaTemplate.send(producerRecord);
-            return;
+            return new ProducerRecord<>(topic, partition, messageKey, specific);
         } catch (Throwable t) {
             // If anything goes wrong (e.g. generated classes not available), fall back to deepCopy.
         }
 
         // fallback: attempt to convert GenericRecord to a generated SpecificRecord when available;
         Object specific = SpecificData.get().deepCopy(schema, record);
-        ProducerRecord<Object, Object> producerRecord = new ProducerRecord<>(topic, partition, messageKey, specific);
-        kafkaTemplate.send(producerRecord);
+        return new ProducerRecord<>(topic, partition, messageKey, specific);
+    }
+
+    /**
+     * Keeps generated text as-is (pre-encoded {@code Utf8} values are written without
+     * re-encoding); null becomes an empty string.
+     */
+    private static CharSequence text(Object value) {
+        if (value instanceof CharSequence) {
+            return (CharSequence) value;
+        }
+        return value == null ? "" : value.toString();
     }
 }
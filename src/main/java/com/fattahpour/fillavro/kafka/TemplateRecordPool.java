@@ -0,0 +1,259 @@
+package com.fattahpour.fillavro.kafka;
+
+import com.fattahpour.fillavro.avro.AvroRecordGenerator;
+import com.fattahpour.fillavro.avro.AvroSizeEstimator;
+import org.apache.avro.Schema;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.SplittableRandom;
+
+/**
+ * Produces Avro binary messages at a very high rate by encoding a small set of template
+ * records once and then rewriting fixed-position regions of pooled copies of their bytes:
+ * <ul>
+ *   <li>the characters of {@code id}-suffixed strings (hex digits are replaced by hex digits),</li>
+ *   <li>date/time {@code long} fields (set to the current time when it encodes to the same width),</li>
+ *   <li>the content of {@code fixed} and {@code bytes} values.</li>
+ * </ul>
+ * No region changes length, so every variant stays a valid encoding of the schema.
+ *
+ * <p>Buffers are reused: a returned array is rewritten after {@code buffersPerTemplate}
+ * further calls for the same template, so it must be handed off (e.g. to
+ * {@code KafkaProducer.send}, which copies the value into its batch) before then.
+ * Instances are not thread-safe.
+ */
+public class TemplateRecordPool {
+
+    private static final int HEX_TEXT = 0;
+    private static final int TIMESTAMP = 1;
+    private static final int RANDOM_BYTES = 2;
+
+    private static final byte[] HEX = "0123456789abcdef".getBytes(java.nio.charset.StandardCharsets.US_ASCII);
+
+    private final byte[][][] buffers;
+    private final int[][] regions;
+    private final int[] cursors;
+    private final SplittableRandom random;
+    private int template;
+
+    TemplateRecordPool(List<byte[]> templates, List<int[]> regions, int buffersPerTemplate, long seed) {
+        if (templates.isEmpty() || buffersPerTemplate <= 0) {
+            throw new IllegalArgumentException("Template pool requires at least one template and one buffer per template");
+        }
+        this.buffers = new byte[templates.size()][buffersPerTemplate][];
+        for (int t = 0; t < templates.size(); t++) {
+            for (int b = 0; b < buffersPerTemplate; b++) {
+                buffers[t][b] = templates.get(t).clone();
+            }
+        }
+        this.regions = regions.toArray(new int[0][]);
+        this.cursors = new int[templates.size()];
+        this.random = new SplittableRandom(seed);
+    }
+
+    public static TemplateRecordPool build(Schema schema,
+                                           AvroRecordGenerator generator,
+                                           AvroSpecificSerializer serializer,
+                                           int templateCount,
+                                           int buffersPerTemplate) {
+        return build(schema, generator, serializer, templateCount, buffersPerTemplate, "template-mutations");
+    }
+
+    /**
+     * Like {@link #build(Schema, AvroRecordGenerator, AvroSpecificSerializer, int, int)}, but
+     * rewrites regions from the generator's random stream named {@code stream}. Pools that are
+     * used side by side need distinct streams, or they rewrite their IDs in lockstep.
+     */
+    public static TemplateRecordPool build(Schema schema,
+                                           AvroRecordGenerator generator,
+                                           AvroSpecificSerializer serializer,
+                                           int templateCount,
+                                           int buffersPerTemplate,
+                                           String stream) {
+        List<byte[]> templates = new ArrayList<>(templateCount);
+        List<int[]> regions = new ArrayList<>(templateCount);
+        for (int i = 0; i < templateCount; i++) {
+            byte[] encoded = serializer.serialize(null, generator.generateRecord(schema));
+            templates.add(encoded);
+            regions.add(scan(schema, encoded));
+        }
+        return new TemplateRecordPool(templates, regions, buffersPerTemplate, generator.streamSeed(stream));
+    }
+
+    public int templateCount() {
+        return buffers.length;
+    }
+
+    /**
+     * Returns the next variant, cycling through the templates.
+     */
+    public byte[] next() {
+        int t = template;
+        template = t + 1 == buffers.length ? 0 : t + 1;
+        int cursor = cursors[t];
+        cursors[t] = cursor + 1 == buffers[t].length ? 0 : cursor + 1;
+        byte[] buffer = buffers[t][cursor];
+        mutate(buffer, regions[t]);
+        return buffer;
+    }
+
+    private void mutate(byte[] buffer, int[] regions) {
+        for (int r = 0; r < regions.length; r += 3) {
+            int offset = regions[r];
+            int length = regions[r + 1];
+            switch (regions[r + 2]) {
+                case HEX_TEXT -> {
+                    long bits = 0;
+                    for (int i = 0; i < length; i++) {
+                        if ((i & 15) == 0) {
+                            bits = random.nextLong();
+                        }
+                        byte b = buffer[offset + i];
+                        if ((b >= '0' && b <= '9') || (b >= 'a' && b <= 'f')) {
+                            buffer[offset + i] = HEX[(int) (bits >>> ((i & 15) << 2)) & 0xF];
+                        }
+                    }
+                }
+                case TIMESTAMP -> {
+                    long now = System.currentTimeMillis();
+                    if (AvroSizeEstimator.longSize(now) == length) {
+                        writeLong(buffer, offset, now);
+                    }
+                }
+                default -> {
+                    for (int i = 0; i < length; i += 8) {
+                        long bits = random.nextLong();
+                        for (int j = i; j < Math.min(length, i + 8); j++) {
+                            buffer[offset + j] = (byte) bits;
+                            bits >>>= 8;
+                        }
+                    }
+                }
+            }
+        }
+    }
+
+    private static void writeLong(byte[] buffer, int offset, long value) {
+        long n = (value << 1) ^ (value >> 63);
+        while ((n & ~0x7FL) != 0) {
+            buffer[offset++] = (byte) ((n & 0x7F) | 0x80);
+            n >>>= 7;
+        }
+        buffer[offset] = (byte) n;
+    }
+
+    /**
+     * Walks an encoded datum and returns its mutable regions as (offset, length, kind) triples.
+     */
+    static int[] scan(Schema schema, byte[] encoded) {
+        Scanner scanner = new Scanner(encoded);
+        List<int[]> found = new ArrayList<>();
+        scanner.walk(schema, "", found);
+        if (scanner.pos != encoded.length) {
+            throw new IllegalStateException("Template scan consumed " + scanner.pos + " of " + encoded.length + " bytes");
+        }
+        int[] flat = new int[found.size() * 3];
+        for (int i = 0; i < found.size(); i++) {
+            System.arraycopy(found.get(i), 0, flat, i * 3, 3);
+        }
+        return flat;
+    }
+
+    private static final class Scanner {
+
+        private final byte[] buf;
+        private int pos;
+
+        Scanner(byte[] buf) {
+            this.buf = buf;
+        }
+
+        void walk(Schema schema, String fieldName, List<int[]> found) {
+            switch (schema.getType()) {
+                case RECORD -> {
+                    for (Schema.Field field : schema.getFields()) {
+                        walk(field.schema(), field.name(), found);
+                    }
+                }
+                case ARRAY -> walkBlocks(() -> walk(schema.getElementType(), fieldName, found));
+                case MAP -> walkBlocks(() -> {
+                    skip((int) readLong());
+                    walk(schema.getValueType(), fieldName, found);
+                });
+                case UNION -> walk(schema.getTypes().get((int) readLong()), fieldName, found);
+                case STRING -> {
+                    int length = (int) readLong();
+                    if (length > 0 && fieldName.toLowerCase(Locale.ENGLISH).endsWith("id")) {
+                        found.add(new int[]{pos, length, HEX_TEXT});
+                    }
+                    skip(length);
+                }
+                case BYTES -> {
+                    int length = (int) readLong();
+                    if (length > 0) {
+                        found.add(new int[]{pos, length, RANDOM_BYTES});
+                    }
+                    skip(length);
+                }
+                case FIXED -> {
+                    if (schema.getFixedSize() > 0) {
+                        found.add(new int[]{pos, schema.getFixedSize(), RANDOM_BYTES});
+                    }
+                    skip(schema.getFixedSize());
+                }
+                case LONG -> {
+                    int start = pos;
+                    readLong();
+                    if (isDateTimeField(fieldName)) {
+                        found.add(new int[]{start, pos - start, TIMESTAMP});
+                    }
+                }
+                case INT, ENUM -> readLong();
+                case FLOAT -> skip(4);
+                case DOUBLE -> skip(8);
+                case BOOLEAN -> skip(1);
+                case NULL -> {
+                    // nothing encoded
+                }
+            }
+        }
+
+        private void walkBlocks(Runnable item) {
+            long count = readLong();
+            while (count != 0) {
+                if (count < 0) {
+                    count = -count;
+                    readLong(); // block size in bytes
+                }
+                for (long i = 0; i < count; i++) {
+                    item.run();
+                }
+                count = readLong();
+            }
+        }
+
+        private long readLong() {
+            long n = 0;
+            int shift = 0;
+            byte b;
+            do {
+                b = buf[pos++];
+                n |= (long) (b & 0x7F) << shift;
+                shift += 7;
+            } while ((b & 0x80) != 0);
+            return (n >>> 1) ^ -(n & 1);
+        }
+
+        private void skip(int length) {
+            pos += length;
+        }
+
+        private static boolean isDateTimeField(String fieldName) {
+            String lower = fieldName.toLowerCase(Locale.ENGLISH);
+            return lower.contains("created") || lower.contains("updated") || lower.contains("timestamp")
+                    || lower.contains("date") || lower.contains("time");
+        }
+    }
+}
@@ -1,14 +1,27 @@
 package com.fattahpour.fillavro.avro;
 
+import com.fattahpour.fillavro.config.AvroConfigProperties;
+import com.fattahpour.fillavro.config.InstanceProperties;
 import net.datafaker.Faker;
 import org.apache.avro.Schema;
 import org.apache.avro.generic.GenericData;
+import org.apache.avro.generic.GenericDatumWriter;
 import org.apache.avro.generic.GenericRecord;
+import org.apache.avro.io.BinaryEncoder;
+import org.apache.avro.io.EncoderFactory;
+import org.apache.avro.util.Utf8;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
 import java.util.Locale;
 import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
 
 import static org.junit.jupiter.api.Assertions.assertFalse;
 import static org.junit.jupiter.api.Assertions.assertNotNull;
@@ -64,7 +77,7 @@ class AvroRecordGeneratorTest {
         assertNotNull(address.get("city"));
         assertNotNull(address.get("postalCode"));
 
-        assertFalse(((java.util.List<?>) record.get("tags")).isEmpty());
+        assertFalse(((List<?>) record.get("tags")).isEmpty());
         assertFalse(((Map<?, ?>) record.get("attributes")).isEmpty());
 
         GenericData.EnumSymbol status = (GenericData.EnumSymbol) record.get("status");
@@ -96,9 +109,9 @@ class AvroRecordGeneratorTest {
       @Test
       void honorsNestedFieldOverride_dotNotation() {
         // prepare config with nested override for address.city
-        com.fattahpour.fillavro.config.AvroConfigProperties cfg = new com.fattahpour.fillavro.config.AvroConfigProperties();
-        java.util.Map<String, java.util.List<String>> map = new java.util.HashMap<>();
-        map.put("address.city", java.util.List.of("Smallville"));
+        AvroConfigProperties cfg = new AvroConfigProperties();
+        Map<String, List<String>> map = new HashMap<>();
+        map.put("address.city", List.of("Smallville"));
         cfg.setFields(map);
 
         AvroRecordGenerator customGenerator = new AvroRecordGenerator(new Faker(Locale.ENGLISH), cfg);
@@ -108,4 +121,208 @@ class AvroRecordGeneratorTest {
         assertNotNull(address);
         assertEquals("Smallville", address.get("city").toString());
       }
+
+    @Test
+    void padsRecordsToFixedPayloadSize() throws Exception {
+        AvroConfigProperties cfg = new AvroConfigProperties();
+        cfg.getPayloadSize().setDistribution("fixed");
+        cfg.getPayloadSize().setBytes(10_240);
+
+        AvroRecordGenerator sizedGenerator = new AvroRecordGenerator(new Faker(Locale.ENGLISH), cfg);
+        for (int i = 0; i < 20; i++) {
+            GenericRecord record = sizedGenerator.generateRecord(schema);
+            assertEquals(10_240, encode(record).length);
+        }
+    }
+
+    @Test
+    void trimsRecordsToSmallPayloadSize() throws Exception {
+        AvroConfigProperties cfg = new AvroConfigProperties();
+        cfg.getPayloadSize().setDistribution("fixed");
+        cfg.getPayloadSize().setBytes(120);
+
+        AvroRecordGenerator sizedGenerator = new AvroRecordGenerator(new Faker(Locale.ENGLISH), cfg);
+        for (int i = 0; i < 20; i++) {
+            GenericRecord record = sizedGenerator.generateRecord(schema);
+            assertEquals(120, encode(record).length);
+            assertEquals(AvroSizeEstimator.sizeOf(schema, record), encode(record).length);
+        }
+    }
+
+    @Test
+    void referencesIdsEmittedByAnotherSchema() {
+        Schema customer = new Schema.Parser().parse("""
+                {"type": "record", "name": "Customer", "fields": [
+                  {"name": "customerId", "type": "string"},
+                  {"name": "email", "type": "string"}
+                ]}
+                """);
+        Schema order = new Schema.Parser().parse("""
+                {"type": "record", "name": "Order", "fields": [
+                  {"name": "orderId", "type": "string"},
+                  {"name": "customerId", "type": "string"}
+                ]}
+                """);
+        AvroConfigProperties customerCfg = new AvroConfigProperties();
+        customerCfg.getEntities().getIds().put("customerId", "customer");
+        AvroConfigProperties orderCfg = new AvroConfigProperties();
+        orderCfg.getEntities().getRefs().put("customerId", "customer");
+        EntityRegistry registry = new EntityRegistry(1000);
+
+        AvroRecordGenerator customers = new AvroRecordGenerator(new Faker(Locale.ENGLISH), customerCfg, registry);
+        AvroRecordGenerator orders = new AvroRecordGenerator(new Faker(Locale.ENGLISH), orderCfg, registry);
+        Set<String> customerIds = new HashSet<>();
+        for (int i = 0; i < 50; i++) {
+            customerIds.add(customers.generateRecord(customer).get("customerId").toString());
+        }
+
+        for (int i = 0; i < 200; i++) {
+            assertTrue(customerIds.contains(orders.generateRecord(order).get("customerId").toString()));
+        }
+    }
+
+    @Test
+    void nestedPathReferencesSampleMintedIds() {
+        Schema customer = new Schema.Parser().parse("""
+                {"type": "record", "name": "Customer", "fields": [
+                  {"name": "customerId", "type": "string"}
+                ]}
+                """);
+        Schema order = new Schema.Parser().parse("""
+                {"type": "record", "name": "Order", "fields": [
+                  {"name": "orderId", "type": "string"},
+                  {"name": "buyer", "type": {"type": "record", "name": "Buyer", "fields": [
+                    {"name": "customerId", "type": "string"}
+                  ]}}
+                ]}
+                """);
+        AvroConfigProperties config = new AvroConfigProperties();
+        config.getEntities().getIds().put("customerId", "customer");
+        config.getEntities().getRefs().put("buyer.customerId", "customer");
+        EntityRegistry registry = new EntityRegistry(1000);
+        AvroRecordGenerator sharedConfig = new AvroRecordGenerator(new Faker(Locale.ENGLISH), config, registry);
+
+        Set<String> customerIds = new HashSet<>();
+        for (int i = 0; i < 50; i++) {
+            customerIds.add(sharedConfig.generateRecord(customer).get("customerId").toString());
+        }
+
+        for (int i = 0; i < 200; i++) {
+            GenericRecord buyer = (GenericRecord) sharedConfig.generateRecord(order).get("buyer");
+            assertTrue(customerIds.contains(buyer.get("customerId").toString()));
+        }
+    }
+
+    @Test
+    void neverResizesEntityMappedFields() throws Exception {
+        Schema customer = new Schema.Parser().parse("""
+                {"type": "record", "name": "Customer", "fields": [
+                  {"name": "customerRef", "type": "string"},
+                  {"name": "note", "type": "string"}
+                ]}
+                """);
+        Schema order = new Schema.Parser().parse("""
+                {"type": "record", "name": "Order", "fields": [
+                  {"name": "buyerRef", "type": "string"},
+                  {"name": "note", "type": "string"}
+                ]}
+                """);
+        AvroConfigProperties config = new AvroConfigProperties();
+        config.getEntities().getIds().put("customerRef", "customer");
+        config.getEntities().getRefs().put("buyerRef", "customer");
+        config.getPayloadSize().setDistribution("fixed");
+        config.getPayloadSize().setBytes(300);
+        AvroRecordGenerator sized = new AvroRecordGenerator(new Faker(Locale.ENGLISH), config, new EntityRegistry(1000));
+
+        Set<String> customerRefs = new HashSet<>();
+        for (int i = 0; i < 50; i++) {
+            GenericRecord record = sized.generateRecord(customer);
+            assertEquals(300, encode(record).length);
+            String ref = record.get("customerRef").toString();
+            assertEquals(ref, UUID.fromString(ref).toString());
+            customerRefs.add(ref);
+        }
+
+        for (int i = 0; i < 200; i++) {
+            GenericRecord record = sized.generateRecord(order);
+            assertEquals(300, encode(record).length);
+            assertTrue(customerRefs.contains(record.get("buyerRef").toString()));
+        }
+    }
+
+    @Test
+    void seededInstancesAreReproducibleAndDisjoint() {
+        Schema schema = new Schema.Parser().parse("""
+                {
+                  "type": "record",
+                  "name": "Seeded",
+                  "fields": [
+                    {"name": "email", "type": "string"},
+                    {"name": "payload", "type": "bytes"},
+                    {"name": "tags", "type": {"type": "array", "items": "string"}}
+                  ]
+                }
+                """);
+        AvroConfigProperties config = new AvroConfigProperties();
+        config.setSeed(7L);
+
+        AvroRecordGenerator first = new AvroRecordGenerator(config, null, instance(0, 2));
+        AvroRecordGenerator again = new AvroRecordGenerator(config, null, instance(0, 2));
+        AvroRecordGenerator other = new AvroRecordGenerator(config, null, instance(1, 2));
+
+        GenericRecord record = first.generateRecord(schema);
+        assertEquals(record, again.generateRecord(schema));
+        assertFalse(record.equals(other.generateRecord(schema)));
+
+        Set<String> keys = new HashSet<>();
+        for (int i = 0; i < 1000; i++) {
+            String key = first.randomKey();
+            assertEquals(key, again.randomKey());
+            assertTrue(keys.add(key));
+            assertTrue(keys.add(other.randomKey()));
+        }
+    }
+
+    @Test
+    void servesPooledTextAsPreEncodedUtf8() {
+        Schema schema = new Schema.Parser().parse("""
+                {
+                  "type": "record",
+                  "name": "Pooled",
+                  "fields": [
+                    {"name": "id", "type": "string"},
+                    {"name": "email", "type": "string"}
+                  ]
+                }
+                """);
+        AvroConfigProperties config = new AvroConfigProperties();
+        config.setStringPoolSize(4);
+        AvroRecordGenerator pooled = new AvroRecordGenerator(new Faker(Locale.ENGLISH), config);
+
+        Set<Object> emails = new HashSet<>();
+        Set<String> ids = new HashSet<>();
+        for (int i = 0; i < 200; i++) {
+            GenericRecord record = pooled.generateRecord(schema);
+            assertTrue(record.get("email") instanceof Utf8);
+            emails.add(record.get("email"));
+            // ids must stay unique, so they are never pooled
+            assertTrue(ids.add(record.get("id").toString()));
+        }
+        assertTrue(emails.size() <= 4);
+    }
+
+    private static byte[] encode(GenericRecord record) throws IOException {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        BinaryEncoder encoder = EncoderFactory.get().binaryEncoder(out, null);
+        new GenericDatumWriter<GenericRecord>(record.getSchema()).write(record, encoder);
+        encoder.flush();
+        return out.toByteArray();
+    }
+
+    private static InstanceProperties instance(int index, int count) {
+        InstanceProperties instance = new InstanceProperties();
+        instance.setIndex(index);
+        instance.setCount(count);
+        return instance;
+    }
 }
@@ -0,0 +1,113 @@
+package com.fattahpour.fillavro.avro;
+
+import com.fattahpour.fillavro.config.AvroConfigProperties;
+import com.fattahpour.fillavro.config.SenderProperties;
+import net.datafaker.Faker;
+import org.apache.avro.Schema;
+import org.apache.avro.generic.GenericRecord;
+import org.junit.jupiter.api.Test;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class ChangeEventGeneratorTest {
+
+    private final Schema schema = new Schema.Parser().parse("""
+            {"type": "record", "name": "Customer", "fields": [
+              {"name": "id", "type": "string"},
+              {"name": "email", "type": "string"},
+              {"name": "city", "type": "string"},
+              {"name": "balance", "type": "long"}
+            ]}
+            """);
+
+    private final AvroRecordGenerator generator = new AvroRecordGenerator(new Faker(Locale.ENGLISH));
+
+    @Test
+    void updatesMutateOnlySelectedFieldsOfTheLatestState() {
+        SenderProperties.Cdc cdc = new SenderProperties.Cdc();
+        cdc.setKeyField("id");
+        cdc.setMutableFields(List.of("balance"));
+        ChangeEventGenerator changes = new ChangeEventGenerator(generator, schema, cdc);
+
+        Map<String, GenericRecord> latest = new HashMap<>();
+        int updates = 0;
+        for (int i = 0; i < 2000; i++) {
+            ChangeEvent event = changes.next();
+            switch (event.getOp()) {
+                case INSERT -> {
+                    assertEquals(event.getKey(), event.getValue().get("id").toString());
+                    latest.put(event.getKey(), event.getValue());
+                }
+                case UPDATE -> {
+                    GenericRecord previous = latest.get(event.getKey());
+                    assertNotNull(previous, "update for a key that was never inserted or already deleted");
+                    assertEquals(previous.get("email").toString(), event.getValue().get("email").toString());
+                    assertEquals(previous.get("city").toString(), event.getValue().get("city").toString());
+                    latest.put(event.getKey(), event.getValue());
+                    updates++;
+                }
+                case DELETE -> {
+                    assertNull(event.getValue());
+                    assertNotNull(latest.remove(event.getKey()));
+                }
+            }
+        }
+        assertTrue(updates > 400, "expected roughly 30% updates, got " + updates);
+        assertEquals(latest.size(), changes.liveKeys());
+    }
+
+    @Test
+    void updatesKeepTheSampledPayloadSize() {
+        AvroConfigProperties config = new AvroConfigProperties();
+        config.getPayloadSize().setDistribution("fixed");
+        config.getPayloadSize().setBytes(512);
+        SenderProperties.Cdc cdc = new SenderProperties.Cdc();
+        cdc.setKeyField("id");
+        cdc.setMutableFields(List.of("email"));
+        ChangeEventGenerator changes = new ChangeEventGenerator(new AvroRecordGenerator(new Faker(Locale.ENGLISH), config), schema, cdc);
+
+        int updates = 0;
+        for (int i = 0; i < 500; i++) {
+            ChangeEvent event = changes.next();
+            if (event.getOp() == ChangeEvent.Op.UPDATE) {
+                assertEquals(512, AvroSizeEstimator.sizeOf(schema, event.getValue()));
+                updates++;
+            }
+        }
+        assertTrue(updates > 0);
+    }
+
+    @Test
+    void rejectsTheKeyFieldAsMutableField() {
+        SenderProperties.Cdc cdc = new SenderProperties.Cdc();
+        cdc.setKeyField("id");
+        cdc.setMutableFields(List.of("email", "id"));
+
+        assertThrows(IllegalArgumentException.class, () -> new ChangeEventGenerator(generator, schema, cdc));
+    }
+
+    @Test
+    void evictsColdKeysBeyondTheKeyBudget() {
+        SenderProperties.Cdc cdc = new SenderProperties.Cdc();
+        cdc.setInsertWeight(1);
+        cdc.setUpdateWeight(0);
+        cdc.setDeleteWeight(0);
+        cdc.setMaxKeys(100);
+        ChangeEventGenerator changes = new ChangeEventGenerator(generator, schema, cdc);
+
+        for (int i = 0; i < 500; i++) {
+            assertEquals(ChangeEvent.Op.INSERT, changes.next().getOp());
+        }
+        assertEquals(100, changes.liveKeys());
+        assertEquals(400, changes.evictions());
+    }
+}
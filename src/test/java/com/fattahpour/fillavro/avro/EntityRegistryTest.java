@@ -0,0 +1,58 @@
+package com.fattahpour.fillavro.avro;
+
+import net.datafaker.service.RandomService;
+import org.junit.jupiter.api.Test;
+
+import java.util.HashSet;
+import java.util.Random;
+import java.util.Set;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class EntityRegistryTest {
+
+    private final RandomService random = new RandomService(new Random(1));
+
+    @Test
+    void samplesOnlyRegisteredIds() {
+        EntityRegistry registry = new EntityRegistry(1000);
+        Set<String> registered = new HashSet<>();
+        for (int i = 0; i < 100; i++) {
+            registered.add(registry.newId("customer", random));
+        }
+
+        for (int i = 0; i < 1000; i++) {
+            assertTrue(registered.contains(registry.sampleId("customer", random)));
+        }
+        assertEquals(100, registry.size("customer"));
+        assertNull(registry.sampleId("product", random));
+    }
+
+    @Test
+    void mintsVersion4Uuids() {
+        UUID id = UUID.fromString(new EntityRegistry(10).newId("customer", random));
+
+        assertEquals(4, id.version());
+        assertEquals(2, id.variant());
+    }
+
+    @Test
+    void keepsOnlyTheMostRecentIdsOnceFull() {
+        EntityRegistry registry = new EntityRegistry(70_000);
+        for (int i = 0; i < 100_000; i++) {
+            registry.newId("order", random);
+        }
+        Set<String> recent = new HashSet<>();
+        for (int i = 0; i < 70_000; i++) {
+            recent.add(registry.newId("order", random));
+        }
+
+        assertEquals(70_000, registry.size("order"));
+        for (int i = 0; i < 1000; i++) {
+            assertTrue(recent.contains(registry.sampleId("order", random)));
+        }
+    }
+}
@@ -0,0 +1,70 @@
+package com.fattahpour.fillavro.avro;
+
+import com.fattahpour.fillavro.config.AvroConfigProperties;
+import net.datafaker.service.RandomService;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.Random;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class PayloadSizeDistributionTest {
+
+    private final RandomService random = new RandomService(new Random(42));
+
+    @Test
+    void disabledByDefault() {
+        PayloadSizeDistribution distribution = PayloadSizeDistribution.from(new AvroConfigProperties().getPayloadSize());
+
+        assertFalse(distribution.isEnabled());
+        assertEquals(-1, distribution.sample(random));
+    }
+
+    @Test
+    void uniformStaysWithinBounds() {
+        PayloadSizeDistribution distribution = PayloadSizeDistribution.uniform(100, 200);
+
+        for (int i = 0; i < 1000; i++) {
+            int size = distribution.sample(random);
+            assertTrue(size >= 100 && size <= 200, "size out of range: " + size);
+        }
+    }
+
+    @Test
+    void histogramFollowsWeights() {
+        PayloadSizeDistribution distribution = PayloadSizeDistribution.histogram(List.of("1024:70", "10240:25", "102400:5", "512:0"));
+
+        int small = 0;
+        for (int i = 0; i < 10_000; i++) {
+            int size = distribution.sample(random);
+            assertTrue(Set.of(1024, 10240, 102400).contains(size), "unexpected size: " + size);
+            if (size == 1024) {
+                small++;
+            }
+        }
+        assertTrue(small > 6500 && small < 7500, "1KB share was " + small);
+    }
+
+    @Test
+    void neverSamplesZeroWeightBucketBetweenOthers() {
+        PayloadSizeDistribution distribution = PayloadSizeDistribution.histogram(List.of("1024:5", "512:0", "2048:5"));
+
+        for (int i = 0; i < 10_000; i++) {
+            int size = distribution.sample(random);
+            assertTrue(size == 1024 || size == 2048, "unexpected size: " + size);
+        }
+    }
+
+    @Test
+    void rejectsUnknownDistribution() {
+        AvroConfigProperties.PayloadSize config = new AvroConfigProperties.PayloadSize();
+        config.setDistribution("gaussian");
+
+        assertThrows(IllegalArgumentException.class, () -> PayloadSizeDistribution.from(config));
+    }
+}
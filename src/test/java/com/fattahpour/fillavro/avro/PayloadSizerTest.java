@@ -0,0 +1,96 @@
+package com.fattahpour.fillavro.avro;
+
+import net.datafaker.Faker;
+import org.apache.avro.Schema;
+import org.apache.avro.generic.GenericData;
+import org.apache.avro.generic.GenericRecord;
+import org.junit.jupiter.api.Test;
+
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class PayloadSizerTest {
+
+    private final Schema schema = new Schema.Parser().parse("""
+            {"type": "record", "name": "Note", "fields": [
+              {"name": "text", "type": "string"}
+            ]}
+            """);
+
+    private final PayloadSizer sizer = new PayloadSizer(new Faker(new Random(1)).random(), path -> true);
+
+    @Test
+    void growsAcrossTheLengthPrefixBoundary() {
+        // 63 bytes encode with a 1-byte prefix, 64 bytes with a 2-byte prefix
+        GenericRecord record = note("a".repeat(60));
+
+        assertEquals(66, sizer.fit(record, 66));
+        assertEquals(64, record.get("text").toString().length());
+        assertEquals(66, AvroSizeEstimator.sizeOf(schema, record));
+    }
+
+    @Test
+    void shrinksAcrossTheLengthPrefixBoundary() {
+        GenericRecord record = note("a".repeat(100));
+
+        assertEquals(64, sizer.fit(record, 64));
+        assertEquals(63, record.get("text").toString().length());
+    }
+
+    @Test
+    void stopsAtTheClosestSizeWhenTheTargetFallsInAPrefixGap() {
+        // no single string encodes to 65 bytes: 63 bytes encode to 64, 64 bytes to 66
+        GenericRecord grown = note("a".repeat(10));
+        int size = sizer.fit(grown, 65);
+        assertEquals(64, size);
+        assertEquals(size, AvroSizeEstimator.sizeOf(schema, grown));
+
+        GenericRecord shrunk = note("a".repeat(100));
+        size = sizer.fit(shrunk, 65);
+        assertEquals(66, size);
+        assertEquals(size, AvroSizeEstimator.sizeOf(schema, shrunk));
+    }
+
+    @Test
+    void carriesTheUnabsorbedByteOverToAnotherField() {
+        Schema pair = new Schema.Parser().parse("""
+                {"type": "record", "name": "Pair", "fields": [
+                  {"name": "left", "type": "string"},
+                  {"name": "right", "type": "string"}
+                ]}
+                """);
+        GenericRecord record = new GenericData.Record(pair);
+        record.put("left", "a".repeat(10));
+        record.put("right", "b".repeat(10));
+
+        for (int target : new int[]{129, 130, 131, 8193, 8195}) {
+            assertEquals(target, sizer.fit(record, target), "target " + target);
+            assertEquals(target, AvroSizeEstimator.sizeOf(pair, record));
+        }
+    }
+
+    @Test
+    void refitOnlyResizesTheAcceptedFields() {
+        Schema pair = new Schema.Parser().parse("""
+                {"type": "record", "name": "Pair", "fields": [
+                  {"name": "left", "type": "string"},
+                  {"name": "right", "type": "string"}
+                ]}
+                """);
+        GenericRecord record = new GenericData.Record(pair);
+        record.put("left", "a".repeat(10));
+        record.put("right", "b".repeat(10));
+
+        assertEquals(50, sizer.fit(record, 50, path -> path.equals("right")));
+        assertEquals("a".repeat(10), record.get("left").toString());
+        assertTrue(record.get("right").toString().length() > 10);
+    }
+
+    private GenericRecord note(String text) {
+        GenericRecord record = new GenericData.Record(schema);
+        record.put("text", text);
+        return record;
+    }
+}
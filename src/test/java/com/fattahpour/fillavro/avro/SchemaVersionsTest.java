@@ -0,0 +1,51 @@
+package com.fattahpour.fillavro.avro;
+
+import org.apache.avro.Schema;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.Map;
+import java.util.SplittableRandom;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+class SchemaVersionsTest {
+
+    private final Map<String, Schema> schemas = Map.of(
+            "v1.avsc", record("V1"),
+            "v2.avsc", record("V2"),
+            "v3.avsc", record("V3"));
+
+    private final AvroSchemaLoader loader = new AvroSchemaLoader() {
+        @Override
+        public Schema load(String schemaPath) {
+            return schemas.get(schemaPath);
+        }
+    };
+
+    @Test
+    void neverSamplesZeroWeightVersionBetweenOthers() {
+        SchemaVersions versions = SchemaVersions.load(loader, List.of("v1.avsc:5", "v2.avsc:0", "v3.avsc:5"));
+        SplittableRandom random = new SplittableRandom(1);
+
+        int[] counts = new int[versions.size()];
+        for (int i = 0; i < 10_000; i++) {
+            counts[versions.sampleIndex(random)]++;
+        }
+        assertEquals(0, counts[1]);
+        assertNotEquals(0, counts[0]);
+        assertNotEquals(0, counts[2]);
+    }
+
+    @Test
+    void rejectsAllZeroWeights() {
+        assertThrows(IllegalArgumentException.class,
+                () -> SchemaVersions.load(loader, List.of("v1.avsc:0", "v2.avsc:0")));
+    }
+
+    private static Schema record(String name) {
+        return Schema.createRecord(name, null, "test", false, List.of());
+    }
+}
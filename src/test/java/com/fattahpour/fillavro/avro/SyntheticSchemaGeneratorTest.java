@@ -0,0 +1,93 @@
+package com.fattahpour.fillavro.avro;
+
+import org.apache.avro.Schema;
+import org.apache.avro.generic.GenericData;
+import org.apache.avro.generic.GenericRecord;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class SyntheticSchemaGeneratorTest {
+
+    private final SyntheticSchemaGenerator generator = new SyntheticSchemaGenerator();
+
+    @Test
+    void sameSeedProducesSameSchema() {
+        SchemaShape shape = new SchemaShape().setFieldCount(300).setDepth(4).setSeed(7);
+
+        assertEquals(generator.generate(shape).toString(), generator.generate(shape).toString());
+        assertNotEquals(generator.generate(shape).toString(), generator.generate(shape.setSeed(8)).toString());
+    }
+
+    @Test
+    void honorsFieldCountAndDepth() {
+        Schema schema = generator.generate(new SchemaShape().setFieldCount(2000).setDepth(10));
+
+        assertEquals(2000, countFields(schema));
+        assertEquals(10, depthOf(schema));
+    }
+
+    @Test
+    void appliesDensities() {
+        Schema schema = generator.generate(new SchemaShape()
+                .setFieldCount(1000)
+                .setUnionDensity(1.0)
+                .setCollectionDensity(1.0)
+                .setMapArrayRatio(1.0));
+
+        for (Schema.Field field : schema.getFields()) {
+            assertEquals(Schema.Type.UNION, field.schema().getType());
+            assertEquals(Schema.Type.MAP, field.schema().getTypes().get(1).getType());
+        }
+    }
+
+    @Test
+    void generatedSchemasCanBeFilled() {
+        Schema schema = generator.generate(new SchemaShape().setFieldCount(500).setDepth(5).setEnumDensity(0.2));
+        GenericRecord record = new AvroRecordGenerator().generateRecord(schema);
+
+        assertTrue(GenericData.get().validate(schema, record));
+    }
+
+    @Test
+    void rejectsDepthThatCannotFit() {
+        assertThrows(IllegalArgumentException.class,
+                () -> generator.generate(new SchemaShape().setFieldCount(5).setDepth(4)));
+    }
+
+    @Test
+    void shapeNamesDistinguishEveryParameter() {
+        String base = new SchemaShape().toString();
+
+        assertNotEquals(base, new SchemaShape().setUnionDensity(0.3).toString());
+        assertNotEquals(base, new SchemaShape().setCollectionDensity(0.3).toString());
+        assertNotEquals(base, new SchemaShape().setMapArrayRatio(0.3).toString());
+        assertNotEquals(base, new SchemaShape().setEnumDensity(0.3).toString());
+        assertNotEquals(base, new SchemaShape().setEnumCardinality(8).toString());
+        assertNotEquals(base, new SchemaShape().setLogicalTypes(false).toString());
+    }
+
+    private static int countFields(Schema record) {
+        int count = 0;
+        for (Schema.Field field : record.getFields()) {
+            count++;
+            if (field.schema().getType() == Schema.Type.RECORD) {
+                count += countFields(field.schema());
+            }
+        }
+        return count;
+    }
+
+    private static int depthOf(Schema record) {
+        int depth = 1;
+        for (Schema.Field field : record.getFields()) {
+            if (field.schema().getType() == Schema.Type.RECORD) {
+                depth = Math.max(depth, 1 + depthOf(field.schema()));
+            }
+        }
+        return depth;
+    }
+}
@@ -0,0 +1,82 @@
+package com.fattahpour.fillavro.kafka;
+
+import org.apache.avro.Schema;
+import org.apache.avro.generic.GenericData;
+import org.apache.avro.generic.GenericRecord;
+import org.apache.kafka.common.errors.SerializationException;
+import org.apache.kafka.common.header.internals.RecordHeaders;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+class AvroResolvingDeserializerTest {
+
+    private final Schema v1 = new Schema.Parser().parse("""
+            {"type": "record", "name": "User", "fields": [
+              {"name": "id", "type": "string"},
+              {"name": "age", "type": "int"}
+            ]}
+            """);
+
+    private final Schema v2 = new Schema.Parser().parse("""
+            {"type": "record", "name": "User", "fields": [
+              {"name": "id", "type": "string"},
+              {"name": "nickname", "type": "string"},
+              {"name": "age", "type": "long"}
+            ]}
+            """);
+
+    private final AvroSpecificSerializer serializer = new AvroSpecificSerializer();
+
+    @Test
+    void resolvesNewerWriterSchemaIntoReaderSchema() {
+        GenericRecord written = new GenericData.Record(v2);
+        written.put("id", "u-1");
+        written.put("nickname", "neo");
+        written.put("age", 42L);
+        RecordHeaders headers = new RecordHeaders();
+        headers.add(AvroResolvingDeserializer.FINGERPRINT_HEADER, AvroResolvingDeserializer.fingerprintHeader(v2));
+
+        // v1 reader: drops nickname; v2 writes age as long, which v1 cannot read
+        Schema reader = new Schema.Parser().parse("""
+                {"type": "record", "name": "User", "fields": [
+                  {"name": "id", "type": "string"},
+                  {"name": "age", "type": "long"}
+                ]}
+                """);
+        AvroResolvingDeserializer deserializer = new AvroResolvingDeserializer(reader, List.of(v1, v2));
+
+        for (int i = 0; i < 3; i++) {
+            GenericRecord read = deserializer.deserialize("topic", headers, serializer.serialize("topic", written));
+            assertEquals(reader, read.getSchema());
+            assertEquals("u-1", read.get("id").toString());
+            assertEquals(42L, read.get("age"));
+        }
+    }
+
+    @Test
+    void readsWithReaderSchemaWhenHeaderIsMissing() {
+        GenericRecord written = new GenericData.Record(v1);
+        written.put("id", "u-2");
+        written.put("age", 7);
+        AvroResolvingDeserializer deserializer = new AvroResolvingDeserializer(v1, List.of());
+
+        GenericRecord read = deserializer.deserialize("topic", new RecordHeaders(), serializer.serialize("topic", written));
+
+        assertEquals(7, read.get("age"));
+        assertNull(deserializer.deserialize("topic", new RecordHeaders(), (byte[]) null));
+    }
+
+    @Test
+    void rejectsUnknownWriterSchema() {
+        RecordHeaders headers = new RecordHeaders();
+        headers.add(AvroResolvingDeserializer.FINGERPRINT_HEADER, AvroResolvingDeserializer.fingerprintHeader(v2));
+        AvroResolvingDeserializer deserializer = new AvroResolvingDeserializer(v1, List.of());
+
+        assertThrows(SerializationException.class, () -> deserializer.deserialize("topic", headers, new byte[]{2, 65, 2}));
+    }
+}
@@ -0,0 +1,32 @@
+package com.fattahpour.fillavro.kafka;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+class LatencyRecorderTest {
+
+    @Test
+    void reportsPercentilesWithinBucketPrecision() {
+        LatencyRecorder recorder = new LatencyRecorder();
+        for (int ms = 1; ms <= 1000; ms++) {
+            recorder.recordNanos(TimeUnit.MILLISECONDS.toNanos(ms));
+        }
+
+        assertEquals(1000, recorder.count());
+        assertEquals(500, recorder.percentileMillis(50), 500 * 0.002);
+        assertEquals(990, recorder.percentileMillis(99), 990 * 0.002);
+        assertEquals(1000, recorder.maxMillis(), 0.001);
+    }
+
+    @Test
+    void keepsSubMillisecondValuesExact() {
+        LatencyRecorder recorder = new LatencyRecorder();
+        recorder.recordNanos(TimeUnit.MICROSECONDS.toNanos(250));
+
+        assertEquals(0.25, recorder.percentileMillis(50), 0.0001);
+        assertEquals(0, new LatencyRecorder().percentileMillis(99));
+    }
+}
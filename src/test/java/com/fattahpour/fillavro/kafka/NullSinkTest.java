@@ -0,0 +1,76 @@
+package com.fattahpour.fillavro.kafka;
+
+import org.apache.avro.Schema;
+import org.apache.avro.generic.GenericData;
+import org.apache.avro.generic.GenericRecord;
+import org.apache.kafka.clients.producer.ProducerConfig;
+import org.apache.kafka.clients.producer.ProducerRecord;
+import org.apache.kafka.common.serialization.Serializer;
+import org.apache.kafka.common.serialization.StringSerializer;
+import org.junit.jupiter.api.Test;
+import org.springframework.kafka.core.DefaultKafkaProducerFactory;
+
+import java.lang.management.ManagementFactory;
+import java.lang.management.ThreadMXBean;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class NullSinkTest {
+
+    private final Schema schema = new Schema.Parser().parse("""
+            {"type": "record", "name": "Simple", "fields": [{"name": "id", "type": "string"}]}
+            """);
+
+    @Test
+    void countsSerializedKeyAndValueBytes() {
+        GenericRecord record = record("abc");
+        NullSink sink = NullSink.forProducer(new DefaultKafkaProducerFactory<>(Map.of(
+                ProducerConfig.KEY_SERIALIZER_CLASS_CONFIG, StringSerializer.class.getName(),
+                ProducerConfig.VALUE_SERIALIZER_CLASS_CONFIG, AvroSpecificSerializer.class)));
+
+        sink.send(new ProducerRecord<>("topic", "key", record));
+        sink.send(new ProducerRecord<>("topic", null, record));
+
+        // "key" is 3 bytes; each value is a 1-byte length prefix plus "abc"
+        assertEquals(2, sink.records());
+        assertEquals(3 + 4 + 4, sink.bytes());
+        assertTrue(sink.summary().startsWith("2 records in "));
+    }
+
+    @Test
+    void usesSerializersSetOnTheProducerFactory() {
+        Serializer<Object> fixedSize = (topic, data) -> new byte[10];
+        NullSink sink = NullSink.forProducer(new DefaultKafkaProducerFactory<>(Map.of(), fixedSize, fixedSize));
+
+        sink.send(new ProducerRecord<>("topic", "key", record("abc")));
+
+        assertEquals(20, sink.bytes());
+    }
+
+    @Test
+    void summaryReportsAllocationAndThreadCpu() {
+        NullSink sink = new NullSink(new AvroSpecificSerializer(), new AvroSpecificSerializer());
+        for (int i = 0; i < 10_000; i++) {
+            sink.send(new ProducerRecord<>("topic", null, record("value-" + i)));
+        }
+
+        String summary = sink.summary();
+        ThreadMXBean threads = ManagementFactory.getThreadMXBean();
+        if (threads instanceof com.sun.management.ThreadMXBean allocation && allocation.isThreadAllocatedMemorySupported()
+                && allocation.isThreadAllocatedMemoryEnabled()) {
+            assertTrue(summary.contains(" B allocated/record"), summary);
+        }
+        if (threads.isCurrentThreadCpuTimeSupported() && threads.isThreadCpuTimeEnabled()) {
+            assertTrue(summary.contains(", thread CPU "), summary);
+            assertTrue(summary.contains(" records per CPU-second"), summary);
+        }
+    }
+
+    private GenericRecord record(String id) {
+        GenericRecord record = new GenericData.Record(schema);
+        record.put("id", id);
+        return record;
+    }
+}
@@ -0,0 +1,55 @@
+package com.fattahpour.fillavro.kafka;
+
+import com.fattahpour.fillavro.config.InstanceProperties;
+import com.fattahpour.fillavro.config.SenderProperties;
+import org.apache.kafka.clients.producer.ProducerConfig;
+import org.apache.kafka.common.serialization.StringSerializer;
+import org.junit.jupiter.api.Test;
+import org.springframework.kafka.core.DefaultKafkaProducerFactory;
+import org.springframework.kafka.core.KafkaTemplate;
+
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotSame;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class ProducerSettingsTest {
+
+    private final KafkaTemplate<Object, Object> base = new KafkaTemplate<>(new DefaultKafkaProducerFactory<>(Map.of(
+            ProducerConfig.BOOTSTRAP_SERVERS_CONFIG, "localhost:9092",
+            ProducerConfig.KEY_SERIALIZER_CLASS_CONFIG, StringSerializer.class,
+            ProducerConfig.VALUE_SERIALIZER_CLASS_CONFIG, AvroSpecificSerializer.class,
+            ProducerConfig.LINGER_MS_CONFIG, 5)));
+
+    @Test
+    void plainDeliveryWithoutOverridesUsesApplicationTemplate() {
+        try (ProducerSettings settings = ProducerSettings.create(base, new SenderProperties(), new InstanceProperties(), "")) {
+            assertSame(base, settings.template());
+            assertFalse(settings.isTransactional());
+            assertTrue(settings.describe().startsWith("delivery=plain "));
+            assertTrue(settings.describe().contains(" linger.ms=5"));
+            // not configured, so reported with the Kafka default
+            assertTrue(settings.describe().contains(" compression.type=none"));
+        }
+    }
+
+    @Test
+    void sweepEntryConfiguresTransactionalProducer() {
+        InstanceProperties instance = new InstanceProperties();
+        instance.setCount(2);
+        instance.setIndex(1);
+        String entry = "delivery=transactional;transaction-size=50;batch.size=65536;compression.type=lz4";
+
+        try (ProducerSettings settings = ProducerSettings.create(base, new SenderProperties(), instance, entry)) {
+            assertNotSame(base, settings.template());
+            assertTrue(settings.isTransactional());
+            assertTrue(settings.template().isTransactional());
+            assertEquals(50, settings.transactionSize());
+            assertEquals("delivery=transactional transaction-size=50 acks=all enable.idempotence=true"
+                    + " batch.size=65536 linger.ms=5 compression.type=lz4", settings.describe());
+        }
+    }
+}
@@ -2,18 +2,49 @@ package com.fattahpour.fillavro.kafka;
 
 import org.apache.avro.Schema;
 import org.apache.avro.generic.GenericData;
+import org.apache.avro.generic.GenericDatumReader;
 import org.apache.avro.generic.GenericRecord;
+import org.apache.avro.io.DecoderFactory;
+import org.apache.kafka.clients.producer.MockProducer;
+import org.apache.kafka.clients.producer.ProducerConfig;
 import org.apache.kafka.clients.producer.ProducerRecord;
+import org.apache.kafka.common.errors.TimeoutException;
+import org.apache.kafka.common.serialization.Serializer;
+import org.apache.kafka.common.serialization.StringSerializer;
 import com.fattahpour.fillavro.avro.AvroRecordGenerator;
 import com.fattahpour.fillavro.avro.AvroSchemaLoader;
+import com.fattahpour.fillavro.config.InstanceProperties;
+import com.fattahpour.fillavro.config.SenderProperties;
+import ch.qos.logback.classic.Level;
+import ch.qos.logback.classic.Logger;
+import ch.qos.logback.classic.spi.ILoggingEvent;
+import ch.qos.logback.core.read.ListAppender;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.ArgumentCaptor;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.slf4j.LoggerFactory;
+import org.springframework.kafka.core.DefaultKafkaProducerFactory;
 import org.springframework.kafka.core.KafkaTemplate;
+import org.springframework.kafka.core.ProducerFactory;
+import org.springframework.kafka.mock.MockProducerFactory;
 
+import java.nio.ByteBuffer;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
 import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 
@@ -130,4 +161,409 @@ class StartupKafkaSenderTest {
               org.junit.jupiter.api.Assertions.fail("Unexpected message payload type: " + sent.getClass());
             }
         }
+
+    @Test
+    void sendsPreEncodedVariantsInTemplateMode() throws Exception {
+        Schema schema = new Schema.Parser().parse("""
+                {
+                  "type": "record",
+                  "name": "Simple",
+                  "fields": [{"name": "id", "type": "string"}]
+                }
+                """);
+        GenericRecord record = new GenericData.Record(schema);
+        record.put("id", "0123456789abcdef");
+
+        when(schemaLoader.load("path")).thenReturn(schema);
+        when(recordGenerator.generateRecord(schema)).thenReturn(record);
+        when(recordGenerator.randomKey()).thenReturn("generated-key");
+
+        SenderProperties properties = new SenderProperties();
+        properties.setMode(SenderProperties.Mode.TEMPLATE);
+        properties.setCount(5);
+        properties.setTemplates(1);
+
+        new StartupKafkaSender(kafkaTemplate, schemaLoader, recordGenerator, "path", "topic", 0, "", properties, null).run();
+
+        ArgumentCaptor<ProducerRecord<Object, Object>> captor = ArgumentCaptor.forClass(ProducerRecord.class);
+        verify(kafkaTemplate, times(5)).send(captor.capture());
+
+        GenericDatumReader<GenericRecord> reader = new GenericDatumReader<>(schema);
+        for (ProducerRecord<Object, Object> sent : captor.getAllValues()) {
+            GenericRecord decoded = reader.read(null,
+                    DecoderFactory.get().binaryDecoder((byte[]) sent.value(), null));
+            assertEquals(16, decoded.get("id").toString().length());
+        }
+        assertEquals("generated-key", captor.getAllValues().get(4).key());
+    }
+
+    @Test
+    void sendsOnlyThisInstancesShareWithGeneratorKeys() {
+        Schema schema = new Schema.Parser().parse("""
+                {
+                  "type": "record",
+                  "name": "Simple",
+                  "fields": [{"name": "id", "type": "string"}]
+                }
+                """);
+        GenericRecord record = new GenericData.Record(schema);
+        record.put("id", "0123456789abcdef");
+
+        when(schemaLoader.load("path")).thenReturn(schema);
+        when(recordGenerator.generateRecord(schema)).thenReturn(record);
+        when(recordGenerator.randomKey()).thenReturn("key-1", "key-3");
+
+        SenderProperties properties = new SenderProperties();
+        properties.setMode(SenderProperties.Mode.TEMPLATE);
+        properties.setCount(5);
+        properties.setTemplates(1);
+        InstanceProperties instance = new InstanceProperties();
+        instance.setIndex(1);
+        instance.setCount(2);
+
+        new StartupKafkaSender(kafkaTemplate, schemaLoader, recordGenerator, "path", "topic", 0, "", properties, instance).run();
+
+        ArgumentCaptor<ProducerRecord<Object, Object>> captor = ArgumentCaptor.forClass(ProducerRecord.class);
+        verify(kafkaTemplate, times(2)).send(captor.capture());
+        assertEquals("key-1", captor.getAllValues().get(0).key());
+        assertEquals("key-3", captor.getAllValues().get(1).key());
+    }
+
+    @Test
+    void tagsEachSchemaVersionWithItsFingerprint() {
+        Schema v1 = new Schema.Parser().parse("""
+                {"type": "record", "name": "Simple", "fields": [{"name": "id", "type": "string"}]}
+                """);
+        Schema v2 = new Schema.Parser().parse("""
+                {"type": "record", "name": "Simple", "fields": [
+                  {"name": "id", "type": "string"},
+                  {"name": "email", "type": ["null", "string"], "default": null}
+                ]}
+                """);
+        GenericRecord r1 = new GenericData.Record(v1);
+        r1.put("id", "one");
+        GenericRecord r2 = new GenericData.Record(v2);
+        r2.put("id", "two");
+
+        when(schemaLoader.load("path")).thenReturn(v1);
+        when(schemaLoader.load("v1.avsc")).thenReturn(v1);
+        when(schemaLoader.load("v2.avsc")).thenReturn(v2);
+        when(recordGenerator.generateRecord(v1)).thenReturn(r1);
+        when(recordGenerator.generateRecord(v2)).thenReturn(r2);
+        when(recordGenerator.randomKey()).thenReturn("generated-key");
+
+        SenderProperties properties = new SenderProperties();
+        properties.setCount(50);
+        properties.setSchemaVersions(List.of("v1.avsc:1", "v2.avsc:1"));
+
+        new StartupKafkaSender(kafkaTemplate, schemaLoader, recordGenerator, "path", "topic", 0, "", properties, null).run();
+
+        ArgumentCaptor<ProducerRecord<Object, Object>> captor = ArgumentCaptor.forClass(ProducerRecord.class);
+        verify(kafkaTemplate, times(50)).send(captor.capture());
+        Set<Schema> seen = new HashSet<>();
+        for (ProducerRecord<Object, Object> sent : captor.getAllValues()) {
+            Schema writer = ((GenericRecord) sent.value()).getSchema();
+            seen.add(writer);
+            assertArrayEquals(AvroResolvingDeserializer.fingerprintHeader(writer),
+                    sent.headers().lastHeader(AvroResolvingDeserializer.FINGERPRINT_HEADER).value());
+        }
+        assertEquals(2, seen.size());
+        // one key per message: sampling versions must not consume keys
+        verify(recordGenerator, times(50)).randomKey();
+    }
+
+    @Test
+    void templateIdsAreUniqueAcrossVersionsAndRuns() throws Exception {
+        Schema v1 = new Schema.Parser().parse("""
+                {"type": "record", "name": "Order", "fields": [{"name": "orderId", "type": "string"}]}
+                """);
+        Schema v2 = new Schema.Parser().parse("""
+                {"type": "record", "name": "Order", "fields": [
+                  {"name": "orderId", "type": "string"},
+                  {"name": "qty", "type": "int", "default": 0}
+                ]}
+                """);
+        when(schemaLoader.load("path")).thenReturn(v1);
+        when(schemaLoader.load("v1.avsc")).thenReturn(v1);
+        when(schemaLoader.load("v2.avsc")).thenReturn(v2);
+        Map<Long, GenericDatumReader<GenericRecord>> readers = Map.of(
+                AvroResolvingDeserializer.fingerprint(v1), new GenericDatumReader<>(v1),
+                AvroResolvingDeserializer.fingerprint(v2), new GenericDatumReader<>(v2));
+        List<String> orderIds = new ArrayList<>();
+        // pooled buffers are rewritten later, so decode each message when it is sent
+        when(kafkaTemplate.send(any(ProducerRecord.class))).thenAnswer(invocation -> {
+            ProducerRecord<?, ?> sent = invocation.getArgument(0);
+            long fingerprint = ByteBuffer.wrap(sent.headers().lastHeader(AvroResolvingDeserializer.FINGERPRINT_HEADER).value())
+                    .getLong();
+            GenericRecord decoded = readers.get(fingerprint).read(null,
+                    DecoderFactory.get().binaryDecoder((byte[]) sent.value(), null));
+            orderIds.add(decoded.get("orderId").toString());
+            return null;
+        });
+
+        SenderProperties properties = new SenderProperties();
+        properties.setMode(SenderProperties.Mode.TEMPLATE);
+        properties.setCount(500);
+        properties.setSchemaVersions(List.of("v1.avsc:1", "v2.avsc:1"));
+
+        StartupKafkaSender sender = new StartupKafkaSender(kafkaTemplate, schemaLoader, new AvroRecordGenerator(),
+                "path", "topic", 0, "", properties, null);
+        sender.run();
+        sender.run();
+
+        assertEquals(1000, orderIds.size());
+        assertEquals(1000, new HashSet<>(orderIds).size());
+    }
+
+    @Test
+    void nullSinkRunsPipelineWithoutBroker() {
+        Schema schema = new Schema.Parser().parse("""
+                {"type": "record", "name": "Simple", "fields": [{"name": "id", "type": "string"}]}
+                """);
+        GenericRecord record = new GenericData.Record(schema);
+        record.put("id", "value");
+
+        when(schemaLoader.load("path")).thenReturn(schema);
+        when(recordGenerator.generateRecord(schema)).thenReturn(record);
+        when(recordGenerator.randomKey()).thenReturn("generated-key");
+
+        SenderProperties properties = new SenderProperties();
+        properties.setSink(SenderProperties.Sink.NULL);
+        properties.setCount(10);
+
+        when(kafkaTemplate.getProducerFactory()).thenReturn(new DefaultKafkaProducerFactory<>(Map.of(
+                ProducerConfig.KEY_SERIALIZER_CLASS_CONFIG, StringSerializer.class,
+                ProducerConfig.VALUE_SERIALIZER_CLASS_CONFIG, AvroSpecificSerializer.class)));
+
+        new StartupKafkaSender(kafkaTemplate, schemaLoader, recordGenerator, "path", "topic", 0, "", properties, null).run();
+
+        verify(recordGenerator, times(10)).generateRecord(schema);
+        verify(kafkaTemplate, never()).send(any(ProducerRecord.class));
+    }
+
+    @Test
+    void transactionalDeliveryCommitsChunksOfTransactionSize() {
+        Schema schema = simpleSchema();
+        when(schemaLoader.load("path")).thenReturn(schema);
+        when(recordGenerator.generateRecord(schema)).thenReturn(simpleRecord(schema));
+        when(recordGenerator.randomKey()).thenReturn("generated-key");
+
+        SenderProperties properties = new SenderProperties();
+        properties.setCount(250);
+        properties.setDelivery(SenderProperties.Delivery.TRANSACTIONAL);
+        properties.setTransactionSize(100);
+        MockProducers producers = new MockProducers();
+
+        StartupKafkaSender sender = new StartupKafkaSender(kafkaTemplate, schemaLoader, recordGenerator, "path", "topic", 0, "", properties, null);
+        sender.setProducerFactories(producers);
+        sender.run();
+
+        assertEquals(List.of(100, 100, 50), producers.committedChunks());
+        assertEquals(List.of("fill-avro-tx-0-"), producers.transactionIdPrefixes);
+        verify(kafkaTemplate, never()).send(any(ProducerRecord.class));
+    }
+
+    @Test
+    void idempotentAndTransactionalDeliveryOverrideProducerProperties() {
+        Schema schema = simpleSchema();
+        when(schemaLoader.load("path")).thenReturn(schema);
+        when(recordGenerator.generateRecord(schema)).thenReturn(simpleRecord(schema));
+        when(recordGenerator.randomKey()).thenReturn("generated-key");
+
+        SenderProperties properties = new SenderProperties();
+        properties.setCount(3);
+        properties.setSweep(List.of("delivery=idempotent;acks=1", "delivery=transactional"));
+        MockProducers producers = new MockProducers();
+
+        StartupKafkaSender sender = new StartupKafkaSender(kafkaTemplate, schemaLoader, recordGenerator, "path", "topic", 0, "", properties, null);
+        sender.setProducerFactories(producers);
+        sender.run();
+
+        assertEquals(2, producers.properties.size());
+        for (Map<String, Object> producerProperties : producers.properties) {
+            assertEquals(true, producerProperties.get(ProducerConfig.ENABLE_IDEMPOTENCE_CONFIG));
+            assertEquals("all", producerProperties.get(ProducerConfig.ACKS_CONFIG));
+        }
+        assertNull(producers.transactionIdPrefixes.get(0));
+        assertEquals("fill-avro-tx-0-", producers.transactionIdPrefixes.get(1));
+    }
+
+    @Test
+    void sweepSendsAndSummarizesEveryEntry() {
+        Schema schema = simpleSchema();
+        when(schemaLoader.load("path")).thenReturn(schema);
+        when(recordGenerator.generateRecord(schema)).thenReturn(simpleRecord(schema));
+        when(recordGenerator.randomKey()).thenReturn("generated-key");
+
+        SenderProperties properties = new SenderProperties();
+        properties.setCount(5);
+        properties.setSweep(List.of("linger.ms=1", "batch.size=65536;compression.type=lz4", "delivery=transactional;transaction-size=2"));
+        MockProducers producers = new MockProducers();
+        Logger logger = (Logger) LoggerFactory.getLogger(StartupKafkaSender.class);
+        ListAppender<ILoggingEvent> appender = new ListAppender<>();
+        appender.start();
+        logger.addAppender(appender);
+
+        StartupKafkaSender sender = new StartupKafkaSender(kafkaTemplate, schemaLoader, recordGenerator, "path", "topic", 0, "", properties, null);
+        sender.setProducerFactories(producers);
+        try {
+            sender.run();
+        } finally {
+            logger.detachAppender(appender);
+        }
+
+        assertEquals("1", producers.properties.get(0).get(ProducerConfig.LINGER_MS_CONFIG));
+        assertEquals("65536", producers.properties.get(1).get(ProducerConfig.BATCH_SIZE_CONFIG));
+        assertEquals("lz4", producers.properties.get(1).get(ProducerConfig.COMPRESSION_TYPE_CONFIG));
+        assertEquals(15, producers.sentRecords());
+        List<String> summaries = appender.list.stream()
+                .map(ILoggingEvent::getFormattedMessage)
+                .filter(message -> message.startsWith("Sent "))
+                .toList();
+        assertEquals(3, summaries.size());
+        assertTrue(summaries.get(0).contains(" linger.ms=1 "));
+        assertTrue(summaries.get(1).contains(" compression.type=lz4"));
+        assertTrue(summaries.get(2).contains("delivery=transactional transaction-size=2 "));
+        assertTrue(appender.list.stream().anyMatch(event -> event.getFormattedMessage().startsWith("Sweep results:")));
+        verify(kafkaTemplate, never()).send(any(ProducerRecord.class));
+    }
+
+    @Test
+    void countsFailedSendsAndExcludesThemFromTheRate() {
+        Schema schema = simpleSchema();
+        when(schemaLoader.load("path")).thenReturn(schema);
+        when(recordGenerator.generateRecord(schema)).thenReturn(simpleRecord(schema));
+        when(recordGenerator.randomKey()).thenReturn("generated-key");
+
+        SenderProperties properties = new SenderProperties();
+        properties.setCount(20);
+        properties.setSweep(List.of("linger.ms=1"));
+        MockProducers producers = new MockProducers(true);
+        Logger logger = (Logger) LoggerFactory.getLogger(StartupKafkaSender.class);
+        ListAppender<ILoggingEvent> appender = new ListAppender<>();
+        appender.start();
+        logger.addAppender(appender);
+
+        StartupKafkaSender sender = new StartupKafkaSender(kafkaTemplate, schemaLoader, recordGenerator, "path", "topic", 0, "", properties, null);
+        sender.setProducerFactories(producers);
+        try {
+            sender.run();
+        } finally {
+            logger.detachAppender(appender);
+        }
+
+        String summary = appender.list.stream()
+                .map(ILoggingEvent::getFormattedMessage)
+                .filter(message -> message.startsWith("Sent "))
+                .findFirst()
+                .orElseThrow();
+        assertTrue(summary.startsWith("Sent 0 records/s (20 records, 20 failed, "), summary);
+        assertEquals(1, appender.list.stream().filter(event -> event.getLevel() == Level.WARN).count());
+    }
+
+    private static Schema simpleSchema() {
+        return new Schema.Parser().parse("""
+                {"type": "record", "name": "Simple", "fields": [{"name": "id", "type": "string"}]}
+                """);
+    }
+
+    private static GenericRecord simpleRecord(Schema schema) {
+        GenericRecord record = new GenericData.Record(schema);
+        record.put("id", "value");
+        return record;
+    }
+
+    /**
+     * Creates {@link MockProducer}-backed factories and records what each was created with.
+     */
+    private static final class MockProducers implements ProducerSettings.FactoryCreator {
+
+        final List<Map<String, Object>> properties = new ArrayList<>();
+        final List<String> transactionIdPrefixes = new ArrayList<>();
+        final List<ChunkRecordingProducer> producers = new ArrayList<>();
+        private final boolean failSends;
+
+        MockProducers() {
+            this(false);
+        }
+
+        MockProducers(boolean failSends) {
+            this.failSends = failSends;
+        }
+
+        @Override
+        public ProducerFactory<Object, Object> create(Map<String, Object> producerProperties, String transactionIdPrefix) {
+            properties.add(producerProperties);
+            transactionIdPrefixes.add(transactionIdPrefix);
+            if (transactionIdPrefix == null) {
+                // one shared producer, like DefaultKafkaProducerFactory's, so that flush sees every send
+                ChunkRecordingProducer shared = newProducer(false);
+                return new MockProducerFactory<>(() -> shared);
+            }
+            return new MockProducerFactory<>((transactional, prefix) -> newProducer(transactional), transactionIdPrefix);
+        }
+
+        private ChunkRecordingProducer newProducer(boolean transactional) {
+            ChunkRecordingProducer producer = new ChunkRecordingProducer(!transactional, failSends);
+            if (transactional) {
+                producer.initTransactions();
+            }
+            producers.add(producer);
+            return producer;
+        }
+
+        List<Integer> committedChunks() {
+            List<Integer> chunks = new ArrayList<>();
+            producers.forEach(producer -> chunks.addAll(producer.chunks));
+            return chunks;
+        }
+
+        int sentRecords() {
+            return producers.stream().mapToInt(producer -> producer.history().size()).sum();
+        }
+    }
+
+    /**
+     * Records the size of each committed transaction; with {@code failSends}, every send fails
+     * with a timeout when the producer is flushed.
+     */
+    private static final class ChunkRecordingProducer extends MockProducer<Object, Object> {
+
+        final List<Integer> chunks = new ArrayList<>();
+        private final boolean shared;
+        private final boolean failSends;
+
+        @SuppressWarnings({"unchecked", "rawtypes"})
+        ChunkRecordingProducer(boolean shared, boolean failSends) {
+            super(!failSends, (Serializer) new StringSerializer(), (Serializer) new AvroSpecificSerializer());
+            this.shared = shared;
+            this.failSends = failSends;
+        }
+
+        @Override
+        public void close(Duration timeout) {
+            // shared producers stay open, as with the close-safe producers of the default factory
+            if (!shared) {
+                super.close(timeout);
+            }
+        }
+
+        @Override
+        public synchronized void flush() {
+            if (!failSends) {
+                super.flush();
+                return;
+            }
+            while (errorNext(new TimeoutException("Expiring record"))) {
+                // fail every pending send
+            }
+        }
+
+        @Override
+        public synchronized void commitTransaction() {
+            int before = history().size();
+            super.commitTransaction();
+            chunks.add(history().size() - before);
+        }
+    }
 }
@@ -0,0 +1,73 @@
+package com.fattahpour.fillavro.kafka;
+
+import com.fattahpour.fillavro.avro.AvroRecordGenerator;
+import net.datafaker.Faker;
+import org.apache.avro.Schema;
+import org.apache.avro.generic.GenericDatumReader;
+import org.apache.avro.generic.GenericRecord;
+import org.apache.avro.io.DecoderFactory;
+import org.junit.jupiter.api.Test;
+
+import java.util.HashSet;
+import java.util.Locale;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class TemplateRecordPoolTest {
+
+    private final Schema schema = new Schema.Parser().parse("""
+            {
+              "type": "record",
+              "name": "Order",
+              "fields": [
+                {"name": "orderId", "type": "string"},
+                {"name": "customerId", "type": ["null", "string"]},
+                {"name": "createdAt", "type": "long"},
+                {"name": "checksum", "type": {"type": "fixed", "name": "Checksum", "size": 16}},
+                {"name": "payload", "type": "bytes"},
+                {"name": "lines", "type": {"type": "array", "items": {
+                  "type": "record", "name": "Line", "fields": [
+                    {"name": "sku", "type": "string"},
+                    {"name": "amount", "type": "double"}
+                  ]}}},
+                {"name": "attributes", "type": {"type": "map", "values": "string"}}
+              ]
+            }
+            """);
+
+    private final AvroRecordGenerator generator = new AvroRecordGenerator(new Faker(Locale.ENGLISH));
+
+    @Test
+    void variantsRemainValidAvroWithFreshIds() throws Exception {
+        TemplateRecordPool pool = TemplateRecordPool.build(schema, generator, new AvroSpecificSerializer(), 4, 2);
+        GenericDatumReader<GenericRecord> reader = new GenericDatumReader<>(schema);
+
+        Set<String> orderIds = new HashSet<>();
+        for (int i = 0; i < 1000; i++) {
+            byte[] variant = pool.next();
+            GenericRecord decoded = reader.read(null, DecoderFactory.get().binaryDecoder(variant, null));
+            String orderId = decoded.get("orderId").toString();
+            assertEquals(36, orderId.length());
+            orderIds.add(orderId);
+            assertTrue((Long) decoded.get("createdAt") > 0);
+        }
+        assertEquals(1000, orderIds.size());
+    }
+
+    @Test
+    void reusesPooledBuffersPerTemplate() {
+        TemplateRecordPool pool = TemplateRecordPool.build(schema, generator, new AvroSpecificSerializer(), 2, 3);
+
+        byte[][] firstRound = new byte[6][];
+        for (int i = 0; i < 6; i++) {
+            firstRound[i] = pool.next();
+        }
+        assertNotEquals(firstRound[0], firstRound[2]);
+        assertSame(firstRound[0], pool.next());
+        assertEquals(2, pool.templateCount());
+    }
+}